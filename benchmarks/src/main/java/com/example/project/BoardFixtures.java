@@ -0,0 +1,58 @@
+package com.example.project;
+
+// Fixed positions for the benchmarks, so results stay comparable across engine changes.
+// Rows are written top to bottom with '.' for empty. None of them is already won, and
+// in every position it is O's turn (the AI's symbol in local games).
+// Do not edit existing positions - add new ones, or old results stop being comparable.
+public final class BoardFixtures {
+
+    public enum Phase { OPENING, MIDGAME, NEAR_TERMINAL }
+
+    private BoardFixtures() {}
+
+    public static char[][] position(int gridSize, Phase phase) {
+        switch (gridSize) {
+            case 3:
+                switch (phase) {
+                    case OPENING: return parse("...", ".X.", "...");
+                    case MIDGAME: return parse("X.O", ".X.", "...");
+                    default:      return parse("XOX", "OOX", "X..");
+                }
+            case 5:
+                switch (phase) {
+                    case OPENING: return parse(".....", ".....", "..X..", ".....", ".....");
+                    case MIDGAME: return parse("....X", ".XO..", "..XO.", ".OX..", ".....");
+                    default:      return parse("XXOOX", "OOXXO", "XXOOX", "OOXX.", ".....");
+                }
+            case 7:
+                switch (phase) {
+                    case OPENING: return parse(".......", ".......", ".......", "...X...", ".......", ".......", ".......");
+                    case MIDGAME: return parse(".......", ".X.....", "..XO...", "...XO..", "..OX...", ".......", ".......");
+                    default:      return parse("XXOOXXO", "OOXXOOX", "XXOOXXO", "OOXXOOX", "XXOOXXO", ".......", ".......");
+                }
+            default:
+                throw new IllegalArgumentException("No fixtures for grid size " + gridSize);
+        }
+    }
+
+    // A board with every cell filled and no winner, the worst case for isBoardFull
+    // returning true and for checkWin scanning every line
+    public static char[][] fullDraw(int gridSize) {
+        char[][] board = new char[gridSize][gridSize];
+        for (int i = 0; i < gridSize; i++) {
+            for (int j = 0; j < gridSize; j++) {
+                // Pairs alternate along rows and flip every row: no line longer than two
+                board[i][j] = ((j / 2 + i) % 2 == 0) ? 'X' : 'O';
+            }
+        }
+        return board;
+    }
+
+    private static char[][] parse(String... rows) {
+        char[][] board = new char[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            board[i] = rows[i].replace('.', ' ').toCharArray();
+        }
+        return board;
+    }
+}
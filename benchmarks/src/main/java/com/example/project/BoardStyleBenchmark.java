@@ -0,0 +1,159 @@
+package com.example.project;
+
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// FX-thread cost of showing one move on the board: the state change plus the CSS
+// pass and layout it triggers. Each move marks one cell, or on the way back clears
+// it, so every move is a single-cell change and the board never fills up. Moves
+// are run in batches on the FX thread so the hand-off to it does not dominate.
+//   inlineStyle  a Button per cell restyled with a freshly built setStyle string, as
+//                placeMove/updateBoard used to do
+//   pseudoClass  a Button per cell with a stylesheet, toggling :x / :o pseudo-classes
+//   canvas       BoardCanvas, repainting only the changed cell
+// Rendering on the render thread is not included. JavaFX runs headless through
+// Monocle, which still needs the system's Pango and FreeType libraries for text;
+// add -prof gc for allocations per move.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw"})
+@State(Scope.Benchmark)
+public class BoardStyleBenchmark {
+
+    private static final PseudoClass X = PseudoClass.getPseudoClass("x");
+    private static final PseudoClass O = PseudoClass.getPseudoClass("o");
+    private static final int CELL_SIZE = 40;
+    private static final int MOVES_PER_CALL = 32;
+
+    @Param({"3", "7", "19"})
+    public int size;
+
+    @Param({"inlineStyle", "pseudoClass", "canvas"})
+    public String renderer;
+
+    private Parent root;
+    private Stage stage;
+    private Button[] buttons;
+    private BoardCanvas canvas;
+    private long moves = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        onFxThread(this::buildBoard);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        onFxThread(() -> {
+            stage.close();
+            return null;
+        });
+        Platform.exit();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES_PER_CALL)
+    public Object move() throws Exception {
+        return onFxThread(() -> {
+            for (int i = 0; i < MOVES_PER_CALL; i++) {
+                long n = moves++;
+                int cell = (int) (n % (size * size));
+                // First pass over the board places marks, the next one clears them
+                char symbol = (n / (size * size)) % 2 == 0 ? (cell % 2 == 0 ? 'X' : 'O') : ' ';
+                showMove(cell / size, cell % size, symbol);
+                root.applyCss();
+                root.layout();
+            }
+            return root;
+        });
+    }
+
+    private Parent buildBoard() {
+        if (renderer.equals("canvas")) {
+            canvas = new BoardCanvas(size, CELL_SIZE, 6);
+            root = new StackPane(canvas);
+            show(JavaFXLauncher.STYLESHEET);
+        } else {
+            GridPane grid = new GridPane();
+            grid.setHgap(6);
+            grid.setVgap(6);
+            buttons = new Button[size * size];
+            for (int i = 0; i < size * size; i++) {
+                Button btn = new Button("");
+                btn.setMinSize(CELL_SIZE, CELL_SIZE);
+                btn.setMaxSize(CELL_SIZE, CELL_SIZE);
+                if (renderer.equals("inlineStyle")) {
+                    btn.setStyle("-fx-background-color: #353b48; -fx-text-fill: white; " +
+                            "-fx-background-radius: 10; -fx-cursor: hand;");
+                } else {
+                    btn.getStyleClass().add("cell");
+                }
+                buttons[i] = btn;
+                grid.add(btn, i % size, i / size);
+            }
+            root = grid;
+            show(BoardStyleBenchmark.class.getResource("board-cells.css").toExternalForm());
+        }
+        root.applyCss();
+        root.layout();
+        return root;
+    }
+
+    // On screen, so pulses keep draining the canvas's command buffer as they would in the game
+    private void show(String stylesheet) {
+        Scene scene = new Scene(root);
+        scene.getStylesheets().add(stylesheet);
+        stage = new Stage();
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    private void showMove(int row, int col, char symbol) {
+        if (canvas != null) {
+            canvas.setCell(row, col, symbol);
+            // Past the pop-in animation, so the cell settles in this one paint
+            canvas.paintDirty(System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+
+        Button btn = buttons[row * size + col];
+        btn.setText(symbol == ' ' ? "" : String.valueOf(symbol));
+        if (renderer.equals("inlineStyle")) {
+            String color = symbol == 'X' ? "#3498db" : symbol == 'O' ? "#e74c3c" : "white";
+            btn.setStyle("-fx-background-color: #353b48; -fx-text-fill: " + color + "; " +
+                    "-fx-background-radius: 10; -fx-font-size: " + (CELL_SIZE / 3) + ";");
+        } else {
+            btn.pseudoClassStateChanged(X, symbol == 'X');
+            btn.pseudoClassStateChanged(O, symbol == 'O');
+        }
+    }
+
+    private static <T> T onFxThread(Callable<T> task) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result.get();
+    }
+}
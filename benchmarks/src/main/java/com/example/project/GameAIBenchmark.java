@@ -0,0 +1,45 @@
+package com.example.project;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Easy and medium AI moves, plus the one-ply win/block scan medium is built on.
+// Hard (full minimax) is in MinimaxBenchmark because it is only tractable on some positions.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameAIBenchmark {
+
+    @Param({"3", "5", "7"})
+    public int gridSize;
+
+    @Param({"OPENING", "MIDGAME", "NEAR_TERMINAL"})
+    public BoardFixtures.Phase phase;
+
+    @Param({"easy", "medium"})
+    public String difficulty;
+
+    private char[][] board;
+    private GameAI ai;
+
+    @Setup
+    public void setUp() {
+        board = BoardFixtures.position(gridSize, phase);
+        ai = new GameAI('O', 'X', new Random(42));
+    }
+
+    @Benchmark
+    public int[] chooseMove() {
+        return ai.chooseMove(board, difficulty);
+    }
+
+    @Benchmark
+    public int[] findWinningMove() {
+        return ai.findWinningMove(board, 'X');
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.project;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Win and draw detection, called after every move on the server and many times per
+// node inside the AI search.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameRulesBenchmark {
+
+    @Param({"3", "5", "7"})
+    public int gridSize;
+
+    @Param({"OPENING", "MIDGAME", "NEAR_TERMINAL"})
+    public BoardFixtures.Phase phase;
+
+    private char[][] board;
+    private char[][] fullBoard;
+
+    @Setup
+    public void setUp() {
+        board = BoardFixtures.position(gridSize, phase);
+        fullBoard = BoardFixtures.fullDraw(gridSize);
+    }
+
+    // No winner in any fixture, so every line is scanned
+    @Benchmark
+    public boolean checkWin() {
+        return GameRules.checkWin(board, 'X');
+    }
+
+    @Benchmark
+    public boolean isBoardFull() {
+        return GameRules.isBoardFull(board);
+    }
+
+    // A drawn board: the full checkWin scan plus isBoardFull reaching the last cell,
+    // which is what the server does on the final move of a draw
+    @Benchmark
+    public boolean checkDrawnBoard() {
+        return GameRules.checkWin(fullBoard, 'X') || GameRules.checkWin(fullBoard, 'O') || !GameRules.isBoardFull(fullBoard);
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.project;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Headless load generator for GameServer.
+// Connects N simulated players over the normal line protocol. They queue for games,
+// play random legal moves after a think time, chat now and then, and ask for a
+// rematch after every game. Reports throughput and the latency from sending MOVE to
+// receiving the matching UPDATE.
+//
+// Usage:
+//   java -cp bin com.example.project.LoadGenerator [--host localhost] [--port 6000]
+//        [--clients 200] [--grid 3] [--think-ms 200] [--chat-per-min 2]
+//        [--duration-s 60] [--ramp-ms 5]
+public class LoadGenerator {
+
+    private static final long REPORT_INTERVAL_S = 5;
+
+    private final String host;
+    private final int port;
+    private final int clients;
+    private final int gridSize;
+    private final long thinkMs;
+    private final double chatPerMinute;
+    private final long durationS;
+    private final long rampMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+                Thread t = new Thread(r, "loadgen-scheduler");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final LatencyHistogram moveLatency = new LatencyHistogram("move_rtt", "us");
+    private final LongAdder movesSent = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder chatsSent = new LongAdder();
+    private final LongAdder rejectedMoves = new LongAdder();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile boolean running = true;
+
+    public LoadGenerator(String host, int port, int clients, int gridSize, long thinkMs,
+                         double chatPerMinute, long durationS, long rampMs) {
+        this.host = host;
+        this.port = port;
+        this.clients = clients;
+        this.gridSize = gridSize;
+        this.thinkMs = thinkMs;
+        this.chatPerMinute = chatPerMinute;
+        this.durationS = durationS;
+        this.rampMs = rampMs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+
+        LoadGenerator generator = new LoadGenerator(
+                opts.getOrDefault("host", "localhost"),
+                Integer.parseInt(opts.getOrDefault("port", "6000")),
+                Integer.parseInt(opts.getOrDefault("clients", "200")),
+                Integer.parseInt(opts.getOrDefault("grid", "3")),
+                Long.parseLong(opts.getOrDefault("think-ms", "200")),
+                Double.parseDouble(opts.getOrDefault("chat-per-min", "2")),
+                Long.parseLong(opts.getOrDefault("duration-s", "60")),
+                Long.parseLong(opts.getOrDefault("ramp-ms", "5")));
+        generator.run();
+    }
+
+    public void run() throws InterruptedException {
+        System.out.printf("Load test: %d clients, %dx%d, think %d ms, %.1f chats/min, %d s against %s:%d%n",
+                clients, gridSize, gridSize, thinkMs, chatPerMinute, durationS, host, port);
+
+        List<SimulatedPlayer> players = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < clients && running; i++) {
+            SimulatedPlayer player = new SimulatedPlayer("bot-" + i);
+            players.add(player);
+            Thread t = new Thread(player, "loadgen-" + i);
+            t.setDaemon(true);
+            t.start();
+            if (rampMs > 0) {
+                Thread.sleep(rampMs);
+            }
+        }
+
+        ScheduledFuture<?> reporter = scheduler.scheduleAtFixedRate(
+                () -> report(start, false), REPORT_INTERVAL_S, REPORT_INTERVAL_S, TimeUnit.SECONDS);
+
+        long remainingMs = TimeUnit.SECONDS.toMillis(durationS) - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (remainingMs > 0) {
+            Thread.sleep(remainingMs);
+        }
+
+        running = false;
+        reporter.cancel(false);
+        for (SimulatedPlayer player : players) {
+            player.close();
+        }
+        report(start, true);
+        scheduler.shutdownNow();
+    }
+
+    private void report(long startNanos, boolean last) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%s%5.0fs  connected=%d failed=%d  moves=%d (%.0f/s)  games=%d (%.1f/s)  chats=%d  rejected=%d%n",
+                last ? "FINAL " : "", seconds, connected.get(), failed.get(),
+                movesSent.sum(), movesSent.sum() / seconds,
+                gamesFinished.sum(), gamesFinished.sum() / seconds, chatsSent.sum(), rejectedMoves.sum());
+        System.out.printf("%s       move->UPDATE latency: p50=%dus p99=%dus p999=%dus max=%dus (n=%d)%n",
+                last ? "      " : "", moveLatency.percentile(50), moveLatency.percentile(99),
+                moveLatency.percentile(99.9), moveLatency.max(), moveLatency.count());
+    }
+
+    // One simulated player: a blocking reader thread plus moves and chat scheduled on
+    // the shared scheduler, so think time never holds a thread.
+    private class SimulatedPlayer implements Runnable {
+        private final String name;
+        private final Random random = new Random();
+        private Socket socket;
+        private PrintWriter out;
+
+        // Touched by the reader thread and the scheduler
+        private final char[] board = new char[gridSize * gridSize];
+        private volatile char symbol = ' ';
+        private volatile long pendingMoveNanos = 0;
+        private volatile int pendingCell = -1;
+        private ScheduledFuture<?> chatTask;
+
+        SimulatedPlayer(String name) {
+            this.name = name;
+            Arrays.fill(board, ' ');
+        }
+
+        @Override
+        public void run() {
+            try {
+                socket = new Socket(host, port);
+                socket.setTcpNoDelay(true);
+                out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                connected.incrementAndGet();
+
+                send("NAME:" + name);
+                send("GRIDSIZE:" + gridSize);
+                scheduleChat();
+
+                String line;
+                while (running && (line = in.readLine()) != null) {
+                    handle(line);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    failed.incrementAndGet();
+                }
+            } finally {
+                close();
+            }
+        }
+
+        private void handle(String line) {
+            if (line.startsWith("UPDATE:")) {
+                String[] p = line.substring(7).split(",");
+                int cell = Integer.parseInt(p[0]) * gridSize + Integer.parseInt(p[1]);
+                char mark = p[2].charAt(0);
+                synchronized (board) {
+                    board[cell] = mark;
+                }
+                if (mark == symbol && cell == pendingCell && pendingMoveNanos != 0) {
+                    moveLatency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - pendingMoveNanos));
+                    pendingMoveNanos = 0;
+                    pendingCell = -1;
+                }
+            } else if (line.equals("YOUR_TURN")) {
+                scheduler.schedule(this::move, jitter(thinkMs), TimeUnit.MILLISECONDS);
+            } else if (line.startsWith("SYMBOL:")) {
+                symbol = line.charAt(7);
+                clearBoard();
+            } else if (line.equals("REMATCH_START")) {
+                clearBoard();
+            } else if (line.startsWith("GAME_OVER:")) {
+                // Count each game once, from X's side
+                if (symbol == 'X') {
+                    gamesFinished.increment();
+                }
+                if (!line.contains("left")) {
+                    scheduler.schedule(() -> send("REMATCH"), jitter(thinkMs), TimeUnit.MILLISECONDS);
+                }
+            } else if (line.startsWith("MESSAGE:") && pendingMoveNanos != 0
+                    && (line.contains("Not your turn") || line.contains("occupied") || line.contains("not active"))) {
+                rejectedMoves.increment();
+                pendingMoveNanos = 0;
+                pendingCell = -1;
+            } else if (line.equals("PING")) {
+                send("PONG");
+            }
+        }
+
+        private void move() {
+            int cell = -1;
+            synchronized (board) {
+                int empty = 0;
+                for (char c : board) {
+                    if (c == ' ') empty++;
+                }
+                if (empty > 0) {
+                    int pick = random.nextInt(empty);
+                    for (int i = 0; i < board.length; i++) {
+                        if (board[i] == ' ' && pick-- == 0) {
+                            cell = i;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (cell < 0) {
+                return;
+            }
+            pendingCell = cell;
+            pendingMoveNanos = System.nanoTime();
+            movesSent.increment();
+            send("MOVE:" + (cell / gridSize) + "," + (cell % gridSize));
+        }
+
+        private void scheduleChat() {
+            if (chatPerMinute <= 0) {
+                return;
+            }
+            long periodMs = (long) (60_000 / chatPerMinute);
+            chatTask = scheduler.scheduleAtFixedRate(() -> {
+                if (symbol != ' ') {
+                    chatsSent.increment();
+                    send("CHAT:gg from " + name);
+                }
+            }, jitter(periodMs), periodMs, TimeUnit.MILLISECONDS);
+        }
+
+        private void clearBoard() {
+            synchronized (board) {
+                Arrays.fill(board, ' ');
+            }
+            pendingMoveNanos = 0;
+            pendingCell = -1;
+        }
+
+        // Spreads timers out so clients do not move in lockstep
+        private long jitter(long ms) {
+            return ms <= 0 ? 0 : ms / 2 + (long) (random.nextDouble() * ms);
+        }
+
+        private void send(String message) {
+            PrintWriter w = out;
+            if (w != null && running) {
+                synchronized (w) {
+                    w.println(message);
+                }
+            }
+        }
+
+        void close() {
+            if (chatTask != null) {
+                chatTask.cancel(false);
+            }
+            try {
+                if (socket != null && !socket.isClosed()) {
+                    PrintWriter w = out;
+                    if (w != null) {
+                        synchronized (w) {
+                            w.println("LEAVE");
+                        }
+                    }
+                    socket.close();
+                }
+            } catch (IOException ignored) {}
+        }
+    }
+}
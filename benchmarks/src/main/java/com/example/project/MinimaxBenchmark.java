@@ -0,0 +1,42 @@
+package com.example.project;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Hard AI (minimax with alpha-beta, depth cut-off 6) on the positions where one search
+// finishes in reasonable time. On 5×5 and 7×7 openings and midgames a single search
+// takes minutes at the current depth limit, so those are deliberately not listed.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MinimaxBenchmark {
+
+    // gridSize:phase
+    @Param({"3:OPENING", "3:MIDGAME", "3:NEAR_TERMINAL", "5:NEAR_TERMINAL", "7:NEAR_TERMINAL"})
+    public String position;
+
+    private char[][] board;
+    private GameAI ai;
+
+    @Setup
+    public void setUp() {
+        String[] p = position.split(":");
+        board = BoardFixtures.position(Integer.parseInt(p[0]), BoardFixtures.Phase.valueOf(p[1]));
+        ai = new GameAI('O', 'X');
+    }
+
+    @Benchmark
+    public int[] getBestMove() {
+        return ai.getBestMove(board);
+    }
+
+    // A single minimax call from the root, without the move loop around it
+    @Benchmark
+    public int minimaxRoot() {
+        return ai.minimax(board, 0, true, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+}
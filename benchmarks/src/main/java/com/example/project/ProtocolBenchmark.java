@@ -0,0 +1,56 @@
+package com.example.project;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Parsing of inbound MOVE lines as ClientHandler.handleMove does it.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProtocolBenchmark {
+
+    private final String move = "MOVE:4,6";
+    private final String paddedMove = "MOVE: 12 , 3 ";
+    private final String sequencedMove = "MOVE:4,6,117";
+    private final String badMove = "MOVE:4,x";
+
+    @Benchmark
+    public int[] parseMove() {
+        return GameRules.parseMove(move.substring(5));
+    }
+
+    @Benchmark
+    public int[] parsePaddedMove() {
+        return GameRules.parseMove(paddedMove.substring(5));
+    }
+
+    // A predicted move, numbered by the client
+    @Benchmark
+    public int[] parseSequencedMove() {
+        return GameRules.parseMove(sequencedMove.substring(5));
+    }
+
+    // Malformed input goes through the NumberFormatException path
+    @Benchmark
+    public int[] parseBadMove() {
+        return GameRules.parseMove(badMove.substring(5));
+    }
+
+    // The startsWith chain ClientHandler.run walks before reaching handleMove
+    @Benchmark
+    public void dispatchMove(Blackhole bh) {
+        String message = move;
+        if (message.startsWith("NAME:")) {
+            bh.consume(1);
+        } else if (message.startsWith("GRIDSIZE:")) {
+            bh.consume(2);
+        } else if (message.startsWith("MOVE:")) {
+            bh.consume(GameRules.parseMove(message.substring(5)));
+        }
+    }
+}
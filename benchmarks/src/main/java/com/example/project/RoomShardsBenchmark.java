@@ -0,0 +1,117 @@
+package com.example.project;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Moves applied to many live rooms from many reader threads at once, the two ways the
+// server has run its rooms: each room behind its own monitor, called on whichever reader
+// thread got the line, or pinned to a RoomShards thread with the readers only queueing
+// commands. The room here does what GameRoom.makeMove does per move - place the mark,
+// encode the UPDATE frame, check for a win or a full board - minus the network.
+// Each invocation sends a batch of moves to random rooms and waits until all of them are
+// applied, so both sides are measured on moves completed, not moves handed off.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RoomShardsBenchmark {
+
+    private static final int BATCH = 256;
+
+    @Param({"10000"})
+    public int rooms;
+
+    // 0 means RoomShards.defaultCount(), one per core
+    @Param({"0"})
+    public int shardCount;
+
+    private Room[] table;
+    private RoomShards shards;
+
+    static final class Room {
+        final int id;
+        final char[][] board = new char[3][3];
+        char turn = 'X';
+        byte[] lastFrame;
+
+        Room(int id) {
+            this.id = id;
+            reset();
+        }
+
+        void reset() {
+            for (char[] row : board) {
+                Arrays.fill(row, ' ');
+            }
+            turn = 'X';
+        }
+
+        void move(int cell) {
+            int row = cell / 3;
+            int col = cell % 3;
+            if (board[row][col] != ' ') {
+                return; // rejected, as an occupied cell would be
+            }
+            board[row][col] = turn;
+            lastFrame = ("UPDATE:" + row + "," + col + "," + turn + "\n").getBytes(StandardCharsets.UTF_8);
+            if (GameRules.checkWin(board, turn) || GameRules.isBoardFull(board)) {
+                reset();
+            } else {
+                turn = turn == 'X' ? 'O' : 'X';
+            }
+        }
+
+        synchronized void lockedMove(int cell) {
+            move(cell);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = new Room[rooms];
+        for (int i = 0; i < rooms; i++) {
+            table[i] = new Room(i + 1);
+        }
+        shards = new RoomShards("bench-shard", shardCount > 0 ? shardCount : RoomShards.defaultCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        shards.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    // Every reader thread takes the room's monitor itself
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void synchronizedRooms() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BATCH; i++) {
+            table[random.nextInt(rooms)].lockedMove(random.nextInt(9));
+        }
+    }
+
+    // Reader threads queue each move on the room's shard, which applies it without a lock
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void shardedRooms() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CountDownLatch applied = new CountDownLatch(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            Room room = table[random.nextInt(rooms)];
+            int cell = random.nextInt(9);
+            shards.execute(room.id, () -> {
+                room.move(cell);
+                applied.countDown();
+            });
+        }
+        applied.await();
+    }
+}
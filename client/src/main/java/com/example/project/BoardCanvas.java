@@ -0,0 +1,331 @@
+package com.example.project;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.value.ObservableValue;
+import javafx.css.CssMetaData;
+import javafx.css.PseudoClass;
+import javafx.css.Styleable;
+import javafx.css.StyleableProperty;
+import javafx.css.StyleablePropertyFactory;
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+// The game board drawn on one Canvas instead of a grid of Buttons. Cells that
+// change are marked dirty and only those are repainted on the next frame, and
+// clicks are mapped to cells arithmetically, so a 19×19 board is still one node.
+// Cell colors come from the stylesheet (.board in tictactoe.css); the board is
+// :disabled while it is not the local player's turn and :won once a line is made.
+public class BoardCanvas extends Canvas {
+
+    public interface CellListener {
+        void cellClicked(int row, int col);
+    }
+
+    private static final long POP_NANOS = 180_000_000L;
+    private static final double POP_FROM = 0.85;
+
+    private static final PseudoClass WON = PseudoClass.getPseudoClass("won");
+    private static final StyleablePropertyFactory<BoardCanvas> CSS =
+            new StyleablePropertyFactory<>(Canvas.getClassCssMetaData());
+
+    private final int size;
+    private final double cellSize;
+    private final double gap;
+    private final double radius;
+    private final char[][] cells;
+    private final boolean[] winning;
+
+    // Cells to repaint on the next frame, by row * size + col
+    private final boolean[] dirty;
+    private int dirtyCount = 0;
+    // When each mark was placed, for its pop-in animation; 0 once it has settled
+    private final long[] placedAt;
+    private int animating = 0;
+
+    private int hoverRow = -1;
+    private int hoverCol = -1;
+    private CellListener listener;
+    private Font markFont;
+
+    private final StyleableProperty<Color> cellFill = color("cellFill", "-board-cell-fill", b -> b.cellFill, "#353b48");
+    private final StyleableProperty<Color> hoverFill = color("hoverFill", "-board-cell-hover-fill", b -> b.hoverFill, "#636e72");
+    private final StyleableProperty<Color> disabledFill = color("disabledFill", "-board-cell-disabled-fill", b -> b.disabledFill, "#353b48");
+    private final StyleableProperty<Color> cellBorder = color("cellBorder", "-board-cell-border", b -> b.cellBorder, "transparent");
+    private final StyleableProperty<Color> hoverBorder = color("hoverBorder", "-board-cell-hover-border", b -> b.hoverBorder, "transparent");
+    private final StyleableProperty<Color> markFill = color("markFill", "-board-mark-fill", b -> b.markFill, "#353b48");
+    private final StyleableProperty<Color> xColor = color("xColor", "-board-x-color", b -> b.xColor, "#3498db");
+    private final StyleableProperty<Color> oColor = color("oColor", "-board-o-color", b -> b.oColor, "#e74c3c");
+    private final StyleableProperty<Color> winFill = color("winFill", "-board-win-fill", b -> b.winFill, "#2d5a3d");
+    private final StyleableProperty<Boolean> outlineMarks = repaintOnChange(
+            CSS.createStyleableBooleanProperty(this, "outlineMarks", "-board-outline-marks", b -> b.outlineMarks, false));
+
+    private boolean pulseRunning = false;
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            paintDirty(now);
+        }
+    };
+
+    public BoardCanvas(int size, double cellSize, double gap) {
+        super(size * cellSize + (size - 1) * gap, size * cellSize + (size - 1) * gap);
+        this.size = size;
+        this.cellSize = cellSize;
+        this.gap = gap;
+        this.radius = Math.min(10, cellSize / 4);
+        this.cells = new char[size][size];
+        this.winning = new boolean[size * size];
+        this.dirty = new boolean[size * size];
+        this.placedAt = new long[size * size];
+        this.markFont = Font.font("Arial", FontWeight.BOLD, cellSize / 3);
+        for (char[] row : cells) {
+            Arrays.fill(row, ' ');
+        }
+        getStyleClass().add("board");
+
+        setOnMouseMoved(e -> hover(cellAt(e.getX(), e.getY())));
+        setOnMouseExited(e -> hover(-1));
+        setOnMouseClicked(e -> {
+            if (e.getButton() != MouseButton.PRIMARY || listener == null) {
+                return;
+            }
+            int cell = cellAt(e.getX(), e.getY());
+            if (cell >= 0 && isPlayable(cell / size, cell % size)) {
+                listener.cellClicked(cell / size, cell % size);
+            }
+        });
+        // A disabled node gets no mouse events, so it would never see the pointer leave
+        disabledProperty().addListener((obs, was, disabled) -> {
+            hover(-1);
+            markAllDirty();
+        });
+
+        markAllDirty();
+    }
+
+    public void setOnCellClicked(CellListener listener) {
+        this.listener = listener;
+    }
+
+    // ================= STYLE =================
+
+    private StyleableProperty<Color> color(String name, String cssName,
+                                           Function<BoardCanvas, StyleableProperty<Color>> accessor, String initial) {
+        return repaintOnChange(CSS.createStyleableColorProperty(this, name, cssName, accessor, Color.web(initial)));
+    }
+
+    private <T> StyleableProperty<T> repaintOnChange(StyleableProperty<T> property) {
+        ((ObservableValue<?>) property).addListener(o -> markAllDirty());
+        return property;
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+        return CSS.getCssMetaData();
+    }
+
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+        return getClassCssMetaData();
+    }
+
+    public void setMarkFont(Font font) {
+        this.markFont = font;
+        markAllDirty();
+    }
+
+    // ================= STATE =================
+
+    // Places (or with ' ' removes) a mark; new marks pop in
+    public void setCell(int row, int col, char symbol) {
+        if (cells[row][col] == symbol) {
+            return;
+        }
+        cells[row][col] = symbol;
+        int index = row * size + col;
+        if (symbol != ' ') {
+            if (placedAt[index] == 0) {
+                animating++;
+            }
+            placedAt[index] = System.nanoTime();
+        } else if (placedAt[index] != 0) {
+            placedAt[index] = 0;
+            animating--;
+        }
+        markDirty(index);
+    }
+
+    // Highlights a finished line ({row, col} pairs, as from GameRules.winningLine)
+    public void setWinningLine(int[][] line) {
+        if (line == null) {
+            return;
+        }
+        for (int[] cell : line) {
+            winning[cell[0] * size + cell[1]] = true;
+            markDirty(cell[0] * size + cell[1]);
+        }
+        pseudoClassStateChanged(WON, true);
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(cells[i], ' ');
+        }
+        Arrays.fill(winning, false);
+        Arrays.fill(placedAt, 0);
+        animating = 0;
+        pseudoClassStateChanged(WON, false);
+        markAllDirty();
+    }
+
+    // Stands in for enabling and disabling every cell: the board as a whole is :disabled
+    public void setInteractive(boolean interactive) {
+        setDisable(!interactive);
+    }
+
+    public boolean isInteractive() {
+        return !isDisabled();
+    }
+
+    // ================= HIT TESTING =================
+
+    // Cell index under a point, or -1 for the gaps and outside the board
+    int cellAt(double x, double y) {
+        double pitch = cellSize + gap;
+        if (x < 0 || y < 0) {
+            return -1;
+        }
+        int col = (int) (x / pitch);
+        int row = (int) (y / pitch);
+        if (row >= size || col >= size || x - col * pitch > cellSize || y - row * pitch > cellSize) {
+            return -1;
+        }
+        return row * size + col;
+    }
+
+    private boolean isPlayable(int row, int col) {
+        return !isDisabled() && cells[row][col] == ' ';
+    }
+
+    private void hover(int cell) {
+        int row = cell < 0 ? -1 : cell / size;
+        int col = cell < 0 ? -1 : cell % size;
+        if (row == hoverRow && col == hoverCol) {
+            return;
+        }
+        if (hoverRow >= 0) {
+            markDirty(hoverRow * size + hoverCol);
+        }
+        hoverRow = row;
+        hoverCol = col;
+        if (cell >= 0) {
+            markDirty(cell);
+        }
+        setCursor(cell >= 0 && isPlayable(row, col) ? Cursor.HAND : Cursor.DEFAULT);
+    }
+
+    // ================= PAINTING =================
+
+    private void markDirty(int index) {
+        if (!dirty[index]) {
+            dirty[index] = true;
+            dirtyCount++;
+        }
+        if (!pulseRunning) {
+            pulseRunning = true;
+            pulse.start();
+        }
+    }
+
+    private void markAllDirty() {
+        for (int i = 0; i < dirty.length; i++) {
+            markDirty(i);
+        }
+    }
+
+    // Repaints what changed since the last frame; the pulse stops once nothing has
+    void paintDirty(long now) {
+        GraphicsContext g = getGraphicsContext2D();
+        for (int index = 0; index < dirty.length && (dirtyCount > 0 || animating > 0); index++) {
+            boolean wasDirty = dirty[index];
+            if (!wasDirty && placedAt[index] == 0) {
+                continue;
+            }
+            double scale = 1.0;
+            if (placedAt[index] != 0) {
+                double t = (double) (now - placedAt[index]) / POP_NANOS;
+                if (t >= 1.0) {
+                    placedAt[index] = 0;
+                    animating--;
+                } else {
+                    scale = POP_FROM + (1.0 - POP_FROM) * Math.max(0, t);
+                }
+            }
+            if (wasDirty) {
+                dirty[index] = false;
+                dirtyCount--;
+            }
+            paintCell(g, index / size, index % size, scale);
+        }
+        if (dirtyCount == 0 && animating == 0) {
+            pulse.stop();
+            pulseRunning = false;
+        }
+    }
+
+    private void paintCell(GraphicsContext g, int row, int col, double scale) {
+        double x = col * (cellSize + gap);
+        double y = row * (cellSize + gap);
+        g.clearRect(x, y, cellSize, cellSize);
+
+        char symbol = cells[row][col];
+        boolean hovered = row == hoverRow && col == hoverCol && isPlayable(row, col);
+        Color markColor = symbol == 'X' ? xColor.getValue() : oColor.getValue();
+
+        Color fill;
+        if (winning[row * size + col]) {
+            fill = winFill.getValue();
+        } else if (symbol != ' ') {
+            fill = markFill.getValue();
+        } else if (isDisabled()) {
+            fill = disabledFill.getValue();
+        } else {
+            fill = hovered ? hoverFill.getValue() : cellFill.getValue();
+        }
+        Color border = symbol != ' ' && outlineMarks.getValue() ? markColor
+                : hovered ? hoverBorder.getValue() : cellBorder.getValue();
+
+        g.save();
+        g.translate(x + cellSize / 2, y + cellSize / 2);
+        g.scale(scale, scale);
+
+        // Inset by half the stroke so the border stays inside the cell
+        double half = cellSize / 2 - 1;
+        g.setFill(fill);
+        g.fillRoundRect(-half, -half, half * 2, half * 2, radius * 2, radius * 2);
+        if (border.getOpacity() > 0) {
+            g.setStroke(border);
+            g.setLineWidth(2);
+            g.strokeRoundRect(-half, -half, half * 2, half * 2, radius * 2, radius * 2);
+        }
+
+        if (symbol != ' ') {
+            g.setFill(markColor);
+            g.setFont(markFont);
+            g.setTextAlign(TextAlignment.CENTER);
+            g.setTextBaseline(VPos.CENTER);
+            g.fillText(String.valueOf(symbol), 0, 0);
+        }
+        g.restore();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.project;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Chat lines for one game window, kept in a fixed-size ring: once it is full each
+// new line pushes the oldest one out, so a long session holds a constant number of
+// lines. As an ObservableList it drives a ListView, which only builds cells for the
+// rows on screen, so adding a line costs the same however long the chat has run.
+// FX thread only.
+public class ChatLog extends ObservableListBase<String> {
+
+    public static final int DEFAULT_CAPACITY = 200;
+
+    private final String[] lines;
+    private int head = 0;
+    private int count = 0;
+
+    public ChatLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ChatLog(int capacity) {
+        this.lines = new String[capacity];
+    }
+
+    public void append(String sender, String message) {
+        append(sender + ": " + message);
+    }
+
+    public void append(String line) {
+        beginChange();
+        if (count == lines.length) {
+            String oldest = lines[head];
+            lines[head] = null;
+            head = (head + 1) % lines.length;
+            count--;
+            nextRemove(0, oldest);
+        }
+        lines[(head + count) % lines.length] = line;
+        count++;
+        nextAdd(count - 1, count);
+        endChange();
+    }
+
+    @Override
+    public void clear() {
+        if (count == 0) {
+            return;
+        }
+        beginChange();
+        nextRemove(0, new ArrayList<>(this));
+        Arrays.fill(lines, null);
+        head = 0;
+        count = 0;
+        endChange();
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return lines[(head + index) % lines.length];
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    // A ListView over this log with wrapping rows that follows new lines as they arrive
+    public ListView<String> createView() {
+        ListView<String> view = new ListView<>(this);
+        view.getStyleClass().add("chat-list");
+        view.setFocusTraversable(false);
+        view.setCellFactory(list -> {
+            ListCell<String> cell = new ListCell<>() {
+                @Override
+                protected void updateItem(String item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setText(empty ? null : item);
+                }
+            };
+            // Wrap to the list's width instead of scrolling sideways
+            cell.setWrapText(true);
+            cell.prefWidthProperty().bind(list.widthProperty().subtract(20));
+            cell.setMaxWidth(ListCell.USE_PREF_SIZE);
+            return cell;
+        });
+        addListener((ListChangeListener<String>) change -> {
+            if (count > 0) {
+                view.scrollTo(count - 1);
+            }
+        });
+        return view;
+    }
+}
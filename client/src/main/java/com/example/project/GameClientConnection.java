@@ -0,0 +1,293 @@
+package com.example.project;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// The client side of one game connection, shared by GameWindow and OnlineGameClient.
+// It opens the transport (in-process when this launcher hosts the server), sends the
+// greeting, decodes every line into a ServerMessage and hands it to the listener on
+// its I/O thread. Heartbeats are answered here, and if the connection drops while the
+// server holds our seat it reconnects with the session token. Connection changes
+// arrive in the same stream as CONNECTED / RECONNECTING / CONNECT_FAILED / CONNECTION_LOST,
+// and a LATENCY event follows each new round-trip sample. A REDIRECT from a server
+// cluster node is followed here too: we move to the named node and carry on there.
+public class GameClientConnection implements Closeable {
+
+    // Reconnect for this long after a drop, one attempt every RESUME_RETRY_MS
+    private static final long RESUME_WINDOW_MS = 30_000;
+    private static final long RESUME_RETRY_MS = 2_000;
+    // How often we ping the server to measure the round trip, and how many
+    // samples go by between LATENCY reports back to it
+    private static final long LATENCY_INTERVAL_MS = 2_000;
+    private static final int REPORT_EVERY = 5;
+    // Longer chat is cut here, well inside the server's 4 KB line limit
+    public static final int MAX_CHAT_LENGTH = 500;
+
+    // One pooled thread per open connection: it reads, and between drops it reconnects
+    private static final ExecutorService IO = Executors.newCachedThreadPool(daemonThreads("client-io"));
+    // Latency pings for every connection
+    private static final ScheduledExecutorService PINGS =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("client-latency"));
+
+    // Where we connect; changed by a REDIRECT
+    private volatile String host;
+    private volatile int port;
+    private final String username;
+    private final Consumer<ServerMessage> listener;
+
+    private volatile Transport transport;
+    private volatile PrintWriter out;
+    private volatile String sessionToken;
+    private volatile boolean closing = false;
+    private volatile boolean redirected = false;
+    private String[] greeting = new String[0];
+    private ScheduledFuture<?> pinger;
+
+    // Latency, from PING:ts / PONG:ts pairs. Only the I/O thread writes these.
+    private volatile double rttMillis = -1;
+    private volatile double jitterMillis = 0;
+    private long lastSample = -1;
+    private int samples = 0;
+
+    public GameClientConnection(String host, int port, String username, Consumer<ServerMessage> listener) {
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.listener = listener;
+    }
+
+    // Connects in the background, then sends NAME and the greeting lines (GRIDSIZE or SPECTATE)
+    public void connect(String... greeting) {
+        IO.execute(() -> run(greeting));
+    }
+
+    public void send(String line) {
+        PrintWriter writer = out;
+        if (writer != null) {
+            writer.println(line);
+        }
+    }
+
+    public void sendChat(String message) {
+        if (message.length() > MAX_CHAT_LENGTH) {
+            message = message.substring(0, MAX_CHAT_LENGTH);
+        }
+        send("CHAT:" + message);
+    }
+
+    // Smoothed round trip to the server in milliseconds, or -1 before the first PONG
+    public long getRttMillis() {
+        return Math.round(rttMillis);
+    }
+
+    // How much consecutive round trips differ, smoothed the same way
+    public long getJitterMillis() {
+        return Math.round(jitterMillis);
+    }
+
+    // Leaves for good: the server gives up our seat instead of holding it for a resume
+    @Override
+    public void close() {
+        closing = true;
+        send("LEAVE");
+        closeTransport();
+    }
+
+    // ================= I/O THREAD =================
+
+    private void run(String[] greeting) {
+        this.greeting = greeting;
+        boolean connected = false;
+        try {
+            open();
+            send("NAME:" + username);
+            for (String line : greeting) {
+                send(line);
+            }
+            connected = true;
+            emit(ServerMessage.connection(ServerMessage.Type.CONNECTED, null));
+            pinger = PINGS.scheduleAtFixedRate(this::ping, LATENCY_INTERVAL_MS, LATENCY_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            readLines();
+        } catch (IOException e) {
+            if (!connected) {
+                if (!closing) {
+                    emit(ServerMessage.connection(ServerMessage.Type.CONNECT_FAILED, e.getMessage()));
+                }
+                return;
+            }
+        }
+
+        // Try to get our seat back before giving up on the game
+        if (!closing && (sessionToken != null || redirected)) {
+            resume();
+        }
+        if (pinger != null) {
+            pinger.cancel(false);
+        }
+        closeTransport();
+        if (!closing) {
+            emit(ServerMessage.connection(ServerMessage.Type.CONNECTION_LOST, "The connection was interrupted."));
+        }
+    }
+
+    private void open() throws IOException {
+        // The server hosted by this launcher is reached through memory, not the loopback interface
+        transport = GameServer.servesInProcess(host, port)
+                ? GameServer.connectInProcess()
+                : Transport.of(new Socket(host, port));
+        out = new PrintWriter(new OutputStreamWriter(transport.getOutputStream(), StandardCharsets.UTF_8), true);
+    }
+
+    // Returns when the connection closes, either way
+    private void readLines() throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(transport.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            // Heartbeats and latency replies never reach the UI
+            if (line.equals("PING")) {
+                send("PONG");
+                continue;
+            }
+            if (line.startsWith("PONG:")) {
+                recordPong(line.substring(5));
+                continue;
+            }
+
+            ServerMessage message = ServerMessage.decode(line);
+            if (message.type == ServerMessage.Type.REDIRECT) {
+                if (follow(message.text)) {
+                    return;
+                }
+                continue;
+            }
+            if (message.type == ServerMessage.Type.SESSION) {
+                sessionToken = message.text;
+            } else if (message.type == ServerMessage.Type.RESUME_FAILED) {
+                sessionToken = null;
+            }
+            emit(message);
+        }
+    }
+
+    // host:port of the node that has our room. Drops this connection so run() reconnects there.
+    private boolean follow(String address) {
+        int colon = address.lastIndexOf(':');
+        try {
+            port = Integer.parseInt(address.substring(colon + 1));
+        } catch (RuntimeException e) {
+            return false;
+        }
+        host = address.substring(0, colon);
+        redirected = true;
+        closeTransport();
+        return true;
+    }
+
+    // Reconnects with the session token while the server is still holding our seat.
+    // The server answers with a single SNAPSHOT of the game instead of replaying it.
+    // After a REDIRECT it goes straight to the new node, presenting the token, or for a
+    // spectator the original greeting again.
+    private void resume() {
+        long giveUpAt = System.currentTimeMillis() + RESUME_WINDOW_MS;
+        while (!closing && (sessionToken != null || redirected) && System.currentTimeMillis() < giveUpAt) {
+            try {
+                if (redirected) {
+                    redirected = false;
+                } else {
+                    emit(ServerMessage.connection(ServerMessage.Type.RECONNECTING, null));
+                    Thread.sleep(RESUME_RETRY_MS);
+                }
+                closeTransport();
+                open();
+                send("NAME:" + username);
+                if (sessionToken != null) {
+                    send("RESUME:" + sessionToken);
+                } else {
+                    for (String line : greeting) {
+                        send(line);
+                    }
+                }
+                readLines();
+
+                // We were back in, then dropped again - start a fresh window
+                giveUpAt = System.currentTimeMillis() + RESUME_WINDOW_MS;
+            } catch (IOException ignored) {
+                // Server still unreachable - retry
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void emit(ServerMessage message) {
+        listener.accept(message);
+    }
+
+    private void closeTransport() {
+        Transport t = transport;
+        try {
+            if (t != null && !t.isClosed()) {
+                t.close();
+            }
+        } catch (IOException ignored) {}
+    }
+
+    // ================= LATENCY =================
+
+    // The timestamp comes back in the PONG, so any number of pings can be in flight
+    // and a reply that arrives after a reconnect still measures its own round trip
+    private void ping() {
+        if (out != null) {
+            send("PING:" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+        }
+    }
+
+    private void recordPong(String timestamp) {
+        long sample;
+        try {
+            sample = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) - Long.parseLong(timestamp.trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (sample < 0) {
+            return;
+        }
+
+        // Smoothed like TCP's RTT estimate, and jitter as in RTP (RFC 3550), so one
+        // slow reply nudges the numbers instead of swinging them
+        rttMillis = rttMillis < 0 ? sample : rttMillis * 0.875 + sample * 0.125;
+        if (lastSample >= 0) {
+            jitterMillis += (Math.abs(sample - lastSample) - jitterMillis) / 16;
+        }
+        lastSample = sample;
+
+        if (++samples % REPORT_EVERY == 0) {
+            send("LATENCY:" + getRttMillis() + "," + getJitterMillis());
+        }
+        emit(ServerMessage.connection(ServerMessage.Type.LATENCY, null));
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
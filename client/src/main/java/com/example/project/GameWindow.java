@@ -0,0 +1,703 @@
+package com.example.project;
+
+import javafx.application.Platform;
+import javafx.geometry.*;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.*;
+import javafx.stage.Stage;
+import javafx.animation.*;
+import javafx.util.Duration;
+
+import java.util.*;
+
+public class GameWindow {
+
+    private BoardCanvas boardCanvas;
+    private char[][] board;
+    private int size;
+    private Label statusLabel;
+    private Label playerLabel;
+    private Label scoreLabel;
+    private Label timerLabel;
+    // Bounded, so a long session does not keep every line
+    private final ChatLog chatLog = new ChatLog();
+    private TextField chatInput;
+    private VBox chatBox;
+
+    private String username;
+    private String gameMode;
+    private String modeData;
+
+    private long gameStartTime;
+    private Timeline timer;
+    private double serverGameTime = -1;
+    private int player1Score = 0;
+    private int player2Score = 0;
+
+    // Computer mode
+    private char playerSymbol = 'X';
+    private char aiSymbol = 'O';
+    private boolean playerTurn = true;
+    private String difficulty = "Medium";
+    private final GameAI ai = new GameAI(aiSymbol, playerSymbol);
+
+    // Friend mode
+    private char currentPlayer = 'X';
+
+    // Online mode
+    private GameClientConnection connection;
+    // Messages from the connection's I/O thread, applied in one batch per animation pulse
+    private final InboundQueue inbound = new InboundQueue(this::processServerMessage);
+    private char mySymbol;
+    private boolean myTurn = false;
+
+    private Stage gameStage;
+
+    public GameWindow(String username, String gameMode, String modeData, int gridSize) {
+        this.username = username;
+        this.gameMode = gameMode;
+        this.modeData = modeData;
+        this.size = gridSize;
+
+        if (gameMode.equals("COMPUTER") && modeData != null) {
+            this.difficulty = modeData;
+        }
+    }
+
+    public void showGame(Stage stage) {
+        this.gameStage = stage;
+        initializeGUI();
+
+        if (gameMode.equals("ONLINE")) {
+            connectToServer();
+        } else {
+            startTimer();
+        }
+    }
+
+    private void initializeGUI() {
+        String title = "Tic-Tac-Toe - ";
+        if (gameMode.equals("COMPUTER")) title += "VS Computer (" + difficulty + ", " + size + "x" + size + ")";
+        else if (gameMode.equals("FRIEND")) title += "Local Multiplayer (" + size + "x" + size + ")";
+        else title += "Online Multiplayer (" + size + "x" + size + ")";
+
+        gameStage.setTitle(title);
+
+        board = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(board[i], ' ');
+        }
+
+        BorderPane root = new BorderPane();
+        root.setStyle("-fx-background-color: linear-gradient(to bottom right, #1e1b4b 0%, #312e81 50%, #1e3a8a 100%);");
+        root.setPadding(new Insets(15));
+
+// Add animated gradient overlay
+        Pane animatedBg = new Pane();
+        animatedBg.setStyle("-fx-background-color: radial-gradient(circle at 20% 50%, rgba(139, 92, 246, 0.3) 0%, transparent 50%);");
+        animatedBg.setMouseTransparent(true);
+        root.getChildren().add(0, animatedBg);
+        animatedBg.toBack();
+
+// Animate the background
+        TranslateTransition tt = new TranslateTransition(Duration.seconds(10), animatedBg);
+        tt.setFromX(-50);
+        tt.setToX(50);
+        tt.setAutoReverse(true);
+        tt.setCycleCount(Timeline.INDEFINITE);
+        tt.play();
+
+        VBox header = createHeader();
+        root.setTop(header);
+
+        if (gameMode.equals("ONLINE")) {
+            HBox centerContent = new HBox(20);
+            centerContent.setAlignment(Pos.CENTER);
+            VBox boardContainer = createBoard();
+            chatBox = createChatBox();
+            centerContent.getChildren().addAll(boardContainer, chatBox);
+            root.setCenter(centerContent);
+        } else {
+            VBox boardContainer = createBoard();
+            root.setCenter(boardContainer);
+        }
+
+        HBox controls = createControls();
+        root.setBottom(controls);
+
+        int sceneHeight = size >= 7 ? 850 : 750;
+        Scene scene = new Scene(root, gameMode.equals("ONLINE") ? 900 : 750, sceneHeight);
+        scene.getStylesheets().add(JavaFXLauncher.STYLESHEET);
+        gameStage.setScene(scene);
+        gameStage.setOnCloseRequest(e -> cleanup());
+        gameStage.show();
+
+        FadeTransition fade = new FadeTransition(Duration.millis(300), root);
+        fade.setFromValue(0);
+        fade.setToValue(1);
+        fade.play();
+    }
+
+    private VBox createHeader() {
+        VBox header = new VBox(8);
+        header.setAlignment(Pos.CENTER);
+        header.setPadding(new Insets(10));
+
+        String headerText;
+        if (gameMode.equals("COMPUTER")) {
+            headerText = username + " (X) VS Computer (O) - " + size + "x" + size;
+        } else if (gameMode.equals("FRIEND")) {
+            headerText = "Local Multiplayer - " + size + "x" + size;
+        } else {
+            headerText = "Online - " + username + " - " + size + "x" + size;
+        }
+
+        playerLabel = new Label(headerText);
+        playerLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 24));
+        playerLabel.setTextFill(Color.web("#facc15"));
+
+        statusLabel = new Label(getInitialStatus());
+        statusLabel.setFont(Font.font("Segoe UI", 16));
+        statusLabel.setTextFill(Color.web("#22c55e"));
+
+        scoreLabel = new Label(getScoreText());
+        scoreLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
+        scoreLabel.setTextFill(Color.web("#38bdf8"));
+
+        timerLabel = new Label("Time: 0.0s");
+        timerLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
+        timerLabel.setTextFill(Color.web("#fb923c"));
+
+        header.getChildren().addAll(playerLabel, statusLabel, scoreLabel, timerLabel);
+        return header;
+    }
+
+    private String getInitialStatus() {
+        if (gameMode.equals("COMPUTER")) return "Your turn!";
+        if (gameMode.equals("FRIEND")) return "Player X's turn";
+        return "Connecting...";
+    }
+
+    private String getScoreText() {
+        if (gameMode.equals("COMPUTER")) {
+            return "Score - You: " + player1Score + " | Computer: " + player2Score;
+        } else if (gameMode.equals("FRIEND")) {
+            return "Score - X: " + player1Score + " | O: " + player2Score;
+        } else {
+            return "Score - You: " + player1Score + " | Opponent: " + player2Score;
+        }
+    }
+
+    private VBox createBoard() {
+        VBox container = new VBox(15);
+        container.setAlignment(Pos.CENTER);
+
+        int cellSize = calculateButtonSize();
+        boardCanvas = new BoardCanvas(size, cellSize, size > 7 ? 2 : 6);
+        boardCanvas.getStyleClass().add("local");
+        boardCanvas.setMarkFont(Font.font("Segoe UI", FontWeight.EXTRA_BOLD, cellSize / 3.0));
+        boardCanvas.setInteractive(!gameMode.equals("ONLINE"));
+        boardCanvas.setOnCellClicked(this::handleMove);
+
+        container.getChildren().add(boardCanvas);
+        return container;
+    }
+
+    private int calculateButtonSize() {
+        if (size == 3) return gameMode.equals("ONLINE") ? 120 : 150;
+        if (size == 5) return gameMode.equals("ONLINE") ? 80 : 100;
+        if (size == 7) return gameMode.equals("ONLINE") ? 60 : 80;
+        // 15×15 and 19×19 are fitted to the same space as the 7×7 board
+        return (gameMode.equals("ONLINE") ? 480 : 640) / size;
+    }
+
+    private VBox createChatBox() {
+        VBox chatContainer = new VBox(10);
+        chatContainer.setAlignment(Pos.TOP_CENTER);
+        chatContainer.setPrefWidth(260);
+        chatContainer.setStyle(
+                "-fx-background-color: rgba(15, 23, 42, 0.95); -fx-background-radius: 12; -fx-padding: 15;");
+
+        Label chatTitle = new Label("💬 Chat");
+        chatTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
+        chatTitle.setTextFill(Color.WHITE);
+
+        ListView<String> chatView = chatLog.createView();
+        chatView.setPrefHeight(420);
+
+        chatInput = new TextField();
+        chatInput.setPromptText("Type message...");
+        chatInput.setStyle(
+                "-fx-background-color: #020617; -fx-text-fill: white; " +
+                        "-fx-prompt-text-fill: #6b7280; -fx-background-radius: 6;");
+        chatInput.setOnAction(e -> sendChat());
+
+        Button sendBtn = new Button("Send");
+        sendBtn.setStyle(
+                "-fx-background-color: #22c55e; -fx-text-fill: white; " +
+                        "-fx-font-weight: bold; -fx-background-radius: 6; -fx-cursor: hand;");
+        sendBtn.setOnAction(e -> sendChat());
+
+        HBox chatInputBox = new HBox(5, chatInput, sendBtn);
+        chatInputBox.setAlignment(Pos.CENTER);
+
+        chatContainer.getChildren().addAll(chatTitle, chatView, chatInputBox);
+        return chatContainer;
+    }
+
+    private HBox createControls() {
+        HBox controls = new HBox(15);
+        controls.setAlignment(Pos.CENTER);
+        controls.setPadding(new Insets(15));
+
+        Button newGameBtn = createStyledButton("🔄 New Game", "#0ea5e9");
+        newGameBtn.setOnAction(e -> resetGame());
+
+        Button backBtn = createStyledButton("🏠 Close Window", "#8b5cf6");
+        backBtn.setOnAction(e -> {
+            cleanup();
+            gameStage.close();
+        });
+
+        Button exitBtn = createStyledButton("❌ Exit App", "#ef4444");
+        exitBtn.setOnAction(e -> {
+            cleanup();
+            Platform.exit();
+        });
+
+        controls.getChildren().addAll(newGameBtn, backBtn, exitBtn);
+        return controls;
+    }
+
+    private Button createStyledButton(String text, String color) {
+        Button btn = new Button(text);
+        btn.setFont(Font.font("Segoe UI", FontWeight.SEMI_BOLD, 14));
+        btn.getStyleClass().add("game-button");
+        btn.setStyle("-button-color: " + color + ";");
+        return btn;
+    }
+
+    private void startTimer() {
+        stopTimer();
+        gameStartTime = System.currentTimeMillis();
+        serverGameTime = -1;
+        timer = new Timeline(new KeyFrame(Duration.millis(100), e -> {
+            double elapsed = (System.currentTimeMillis() - gameStartTime) / 1000.0;
+            timerLabel.setText(String.format("Time: %.1fs", elapsed));
+        }));
+        timer.setCycleCount(Timeline.INDEFINITE);
+        timer.play();
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    private boolean canMakeMove() {
+        if (gameMode.equals("COMPUTER")) return playerTurn;
+        if (gameMode.equals("FRIEND")) return true;
+        if (gameMode.equals("ONLINE")) return myTurn;
+        return false;
+    }
+
+    private void handleMove(int r, int c) {
+        if (board[r][c] != ' ') return;
+
+        if (gameMode.equals("COMPUTER")) {
+            handleComputerMove(r, c);
+        } else if (gameMode.equals("FRIEND")) {
+            handleFriendMove(r, c);
+        } else if (gameMode.equals("ONLINE")) {
+            handleOnlineMove(r, c);
+        }
+    }
+
+    // ======== COMPUTER MODE ========
+    private void handleComputerMove(int r, int c) {
+        if (!playerTurn) return;
+
+        placeMove(r, c, playerSymbol);
+
+        if (checkWin(playerSymbol)) {
+            player1Score++;
+            updateScore();
+            stopTimer();
+            double gameTime = (System.currentTimeMillis() - gameStartTime) / 1000.0;
+            LeaderboardStore.addLeaderboardEntry(username, 1, gameTime, "Computer", size);
+            showGameOver("🎉 You win!");
+            return;
+        }
+
+        if (isBoardFull()) {
+            showGameOver("🤝 It's a draw!");
+            return;
+        }
+
+        playerTurn = false;
+        statusLabel.setText("Computer is thinking...");
+        statusLabel.setTextFill(Color.web("#fb923c"));
+        disableAllButtons();
+
+        PauseTransition pause = new PauseTransition(Duration.millis(500));
+        pause.setOnFinished(e -> {
+            makeAIMove();
+
+            if (checkWin(aiSymbol)) {
+                player2Score++;
+                updateScore();
+                stopTimer();
+                showGameOver("Computer wins!");
+                return;
+            }
+
+            if (isBoardFull()) {
+                showGameOver("🤝 It's a draw!");
+                return;
+            }
+
+            playerTurn = true;
+            statusLabel.setText("Your turn!");
+            statusLabel.setTextFill(Color.web("#22c55e"));
+            enableEmptyButtons();
+        });
+        pause.play();
+    }
+
+    private void makeAIMove() {
+        GameEvents.AISearch event = new GameEvents.AISearch();
+        event.begin();
+        int[] move = ai.chooseMove(board, difficulty);
+        event.end();
+        if (event.shouldCommit()) {
+            event.difficulty = difficulty;
+            event.gridSize = size;
+            event.maxDepth = ai.getMaxDepth();
+            event.nodes = ai.getNodes();
+            event.commit();
+        }
+
+        if (move != null) {
+            placeMove(move[0], move[1], aiSymbol);
+        }
+    }
+
+    // ===============================
+
+    // ======== FRIEND MODE ========
+    private void handleFriendMove(int r, int c) {
+        placeMove(r, c, currentPlayer);
+
+        if (checkWin(currentPlayer)) {
+            if (currentPlayer == 'X') player1Score++;
+            else player2Score++;
+            updateScore();
+            stopTimer();
+            double gameTime = (System.currentTimeMillis() - gameStartTime) / 1000.0;
+            LeaderboardStore.addLeaderboardEntry(username, 1, gameTime, "Friend", size);
+            showGameOver("🎉 Player " + currentPlayer + " wins!");
+            return;
+        }
+
+        if (isBoardFull()) {
+            showGameOver("🤝 It's a draw!");
+            return;
+        }
+
+        currentPlayer = (currentPlayer == 'X') ? 'O' : 'X';
+        statusLabel.setText("Player " + currentPlayer + "'s turn");
+        statusLabel.setTextFill(currentPlayer == 'X'
+                ? Color.web("#38bdf8") : Color.web("#f97316"));
+    }
+    // ==============================
+
+    // ======== ONLINE MODE ========
+    private void handleOnlineMove(int r, int c) {
+        if (!myTurn) {
+            statusLabel.setText("⚠ Wait for your turn!");
+            statusLabel.setTextFill(Color.web("#ef4444"));
+            return;
+        }
+
+        if (connection != null) {
+            connection.send("MOVE:" + r + "," + c);
+        }
+    }
+
+    private void sendChat() {
+        if (gameMode.equals("ONLINE") && connection != null) {
+            String message = chatInput.getText().trim();
+            if (!message.isEmpty()) {
+                connection.sendChat(message);
+                chatInput.clear();
+            }
+        }
+    }
+
+    private void connectToServer() {
+        statusLabel.setText("Connecting to server...");
+        statusLabel.setTextFill(Color.web("#e5e7eb"));
+
+        String[] parts = modeData.split(":");
+        String host = parts[0];
+        int port = Integer.parseInt(parts[1]);
+
+        connection = new GameClientConnection(host, port, username, inbound::post);
+        connection.connect("GRIDSIZE:" + size);
+    }
+
+    private void processServerMessage(ServerMessage msg) {
+        switch (msg.type) {
+            case CONNECTED:
+                statusLabel.setText("✓ Connected! Waiting for opponent...");
+                statusLabel.setTextFill(Color.web("#22c55e"));
+                break;
+
+            case RECONNECTING:
+                statusLabel.setText("⚠ Connection lost - reconnecting...");
+                statusLabel.setTextFill(Color.web("#facc15"));
+                disableAllButtons();
+                break;
+
+            case CONNECT_FAILED:
+            case CONNECTION_LOST: {
+                statusLabel.setText("❌ Connection lost");
+                statusLabel.setTextFill(Color.web("#ef4444"));
+                disableAllButtons();
+                stopTimer();
+
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Connection Error");
+                if (msg.type == ServerMessage.Type.CONNECT_FAILED) {
+                    alert.setHeaderText("Failed to connect");
+                    alert.setContentText("Could not connect to server. Please check IP, port, and grid size.");
+                } else {
+                    alert.setHeaderText("Lost connection to server");
+                    alert.setContentText(msg.text);
+                }
+                alert.showAndWait();
+                break;
+            }
+
+            case SYMBOL:
+                mySymbol = msg.symbol;
+                playerLabel.setText(username + " (" + mySymbol + ") - " + size + "x" + size);
+                playerLabel.setTextFill(mySymbol == 'X'
+                        ? Color.web("#38bdf8") : Color.web("#f97316"));
+                break;
+
+            case MESSAGE:
+                statusLabel.setText(msg.text);
+                if (msg.text.contains("started")) {
+                    startTimer();
+                }
+                break;
+
+            case YOUR_TURN:
+                myTurn = true;
+                statusLabel.setText("🎯 Your turn!");
+                statusLabel.setTextFill(Color.web("#22c55e"));
+                enableEmptyButtons();
+                break;
+
+            case WAIT_TURN:
+                myTurn = false;
+                statusLabel.setText("⏳ Opponent's turn...");
+                statusLabel.setTextFill(Color.web("#facc15"));
+                disableAllButtons();
+                break;
+
+            case UPDATE:
+                placeMove(msg.row, msg.col, msg.symbol);
+                break;
+
+            case GAME_OVER: {
+                String result = msg.text;
+                stopTimer();
+                if (result.contains("wins") && result.contains(String.valueOf(mySymbol))) {
+                    player1Score++;
+                    double gameTime = serverGameTime >= 0
+                            ? serverGameTime
+                            : (System.currentTimeMillis() - gameStartTime) / 1000.0;
+                    LeaderboardStore.addLeaderboardEntry(username, 1, gameTime, "Online", size);
+                }
+                showGameOver(result);
+                break;
+            }
+
+            case CLOCK:
+                // Keep the displayed time in step with the server's clock
+                gameStartTime = System.currentTimeMillis() - msg.clock[0];
+                break;
+
+            case GAME_TIME:
+                serverGameTime = msg.seconds;
+                break;
+
+            case SCORES:
+                setScores(msg.scoreX, msg.scoreO);
+                break;
+
+            case SNAPSHOT:
+                applySnapshot(msg.fields);
+                break;
+
+            case RESUME_FAILED:
+                // The seat we were reconnecting to is gone - queue for a new game
+                resetBoard();
+                statusLabel.setText("Previous game has ended - finding a new opponent...");
+                statusLabel.setTextFill(Color.web("#facc15"));
+                connection.send("GRIDSIZE:" + size);
+                break;
+
+            case CHAT:
+                chatLog.append(msg.sender, msg.text);
+                break;
+
+            case HISTORY:
+                // The room's recent chat follows as CHAT lines, in place of what we had
+                chatLog.clear();
+                break;
+
+            case REMATCH_START:
+                resetGame();
+                chatLog.append("System", "Rematch started!");
+                break;
+
+            case GRIDSIZE_MISMATCH: {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Grid Size Mismatch");
+                alert.setHeaderText("Cannot join game");
+                alert.setContentText("The game room uses a different grid size.\n" +
+                        "Please select the same grid size as the host ("
+                        + size + "x" + size + ").");
+                alert.showAndWait();
+                cleanup();
+                gameStage.close();
+                break;
+            }
+
+            default:
+                // Room and spectator messages are only used by OnlineGameClient
+                break;
+        }
+    }
+
+    private void setScores(int xScore, int oScore) {
+        if (mySymbol == 'X') {
+            player1Score = xScore;
+            player2Score = oScore;
+        } else {
+            player1Score = oScore;
+            player2Score = xScore;
+        }
+        updateScore();
+    }
+
+    // Back in our seat after a reconnect:
+    // SNAPSHOT:roomId,gridSize,symbol,turn,scoreX,scoreO,active,elapsedMs,xLeftMs,oLeftMs,cells
+    private void applySnapshot(String[] p) {
+        if (Integer.parseInt(p[1].trim()) != size) {
+            return;
+        }
+        mySymbol = p[2].charAt(0);
+        resetBoard();
+        String cells = p[10];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                char cell = cells.charAt(i * size + j);
+                if (cell != '.') {
+                    placeMove(i, j, cell);
+                }
+            }
+        }
+        setScores(Integer.parseInt(p[4].trim()), Integer.parseInt(p[5].trim()));
+        gameStartTime = System.currentTimeMillis() - Long.parseLong(p[7].trim());
+        statusLabel.setText("✓ Reconnected");
+        statusLabel.setTextFill(Color.web("#22c55e"));
+
+        // Catch up on the chat we missed while away
+        connection.send("HISTORY");
+    }
+
+    private void resetBoard() {
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(board[i], ' ');
+        }
+        boardCanvas.clear();
+        boardCanvas.setInteractive(false);
+        myTurn = false;
+    }
+    // =============================
+
+    private void placeMove(int r, int c, char symbol) {
+        board[r][c] = symbol;
+        boardCanvas.setCell(r, c, symbol);
+    }
+
+    private void updateScore() {
+        scoreLabel.setText(getScoreText());
+    }
+
+    private void showGameOver(String result) {
+        disableAllButtons();
+        int[][] line = GameRules.winningLine(board, 'X');
+        boardCanvas.setWinningLine(line != null ? line : GameRules.winningLine(board, 'O'));
+        statusLabel.setText(result);
+        statusLabel.setTextFill(Color.web("#facc15"));
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Game Over");
+        alert.setHeaderText(result);
+        alert.setContentText(getScoreText());
+        alert.show();
+    }
+
+    private boolean checkWin(char symbol) {
+        return GameRules.checkWin(board, symbol);
+    }
+
+    private boolean isBoardFull() {
+        return GameRules.isBoardFull(board);
+    }
+
+    private void resetGame() {
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(board[i], ' ');
+        }
+        boardCanvas.clear();
+        boardCanvas.setInteractive(!gameMode.equals("ONLINE"));
+
+        if (gameMode.equals("COMPUTER")) {
+            playerTurn = true;
+            statusLabel.setText("Your turn!");
+        } else if (gameMode.equals("FRIEND")) {
+            currentPlayer = 'X';
+            statusLabel.setText("Player X's turn");
+        } else if (gameMode.equals("ONLINE") && connection != null) {
+            connection.send("REMATCH");
+        }
+
+        statusLabel.setTextFill(Color.web("#22c55e"));
+        startTimer();
+    }
+
+    private void enableEmptyButtons() {
+        boardCanvas.setInteractive(true);
+    }
+
+    private void disableAllButtons() {
+        boardCanvas.setInteractive(false);
+    }
+
+    private void cleanup() {
+        stopTimer();
+        if (connection != null) {
+            connection.close();
+        }
+    }
+}
\ No newline at end of file
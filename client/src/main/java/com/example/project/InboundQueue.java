@@ -0,0 +1,127 @@
+package com.example.project;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Server messages on their way from the connection's I/O thread to the FX thread.
+// The I/O thread only enqueues; an AnimationTimer applies everything pending once per pulse,
+// so a burst (UPDATE, SCORES, GAME_OVER, YOUR_TURN, chat) costs one layout pass
+// instead of one per line. Within a batch, turn, SCORES, CLOCK and LATENCY updates that a
+// later one of the same kind overwrites are skipped - unless a line in between, such as
+// GAME_OVER, reads that state first.
+public class InboundQueue {
+
+    private static final int TURN = 1;
+    private static final int SCORES = 2;
+    private static final int CLOCK = 4;
+    private static final int LATENCY = 8;
+
+    private final Queue<ServerMessage> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final Consumer<ServerMessage> handler;
+    private final List<ServerMessage> batch = new ArrayList<>();
+    private long skipped = 0;
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drain();
+        }
+    };
+
+    public InboundQueue(Consumer<ServerMessage> handler) {
+        this.handler = handler;
+    }
+
+    // Called from the I/O thread. Only the first message of a burst touches the FX queue.
+    public void post(ServerMessage message) {
+        pending.add(message);
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(pulse::start);
+        }
+    }
+
+    // Superseded state lines dropped so far
+    public long getSkipped() {
+        return skipped;
+    }
+
+    private void drain() {
+        // Clear the flag first: a line added after this point schedules the next pulse
+        scheduled.set(false);
+        ServerMessage message;
+        while ((message = pending.poll()) != null) {
+            batch.add(message);
+        }
+        if (batch.isEmpty()) {
+            // Nothing arrived since the last pulse; the next post() restarts the timer
+            pulse.stop();
+            return;
+        }
+
+        // Walk backwards remembering which kinds of state a later line already sets
+        int overwritten = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            ServerMessage msg = batch.get(i);
+            int kind = kindOf(msg);
+            if (kind == 0) {
+                if (readsState(msg)) {
+                    overwritten = 0;
+                }
+            } else if ((overwritten & kind) != 0) {
+                batch.set(i, null);
+                skipped++;
+            } else {
+                overwritten |= kind;
+            }
+        }
+
+        try {
+            for (ServerMessage msg : batch) {
+                if (msg != null) {
+                    handler.accept(msg);
+                }
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static int kindOf(ServerMessage msg) {
+        switch (msg.type) {
+            case YOUR_TURN:
+            case WAIT_TURN:
+                return TURN;
+            case SCORES:
+                return SCORES;
+            case CLOCK:
+                return CLOCK;
+            case LATENCY:
+                return LATENCY;
+            default:
+                return 0;
+        }
+    }
+
+    // Messages whose handling depends on the turn, scores or clock seen before them
+    private static boolean readsState(ServerMessage msg) {
+        switch (msg.type) {
+            case GAME_OVER:
+            case SYMBOL:
+            case SNAPSHOT:
+            case REMATCH_START:
+            case RESUME_FAILED:
+            case ROOM_CLOSED:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -17,155 +17,18 @@ import javafx.beans.property.*;
 
 import java.io.*;
 import java.net.InetAddress;
-import java.sql.*; // Added for Oracle DB
 import java.util.*;
 
 public class JavaFXLauncher extends Application {
 
+    // Button and board styles shared with the game windows
+    static final String STYLESHEET = JavaFXLauncher.class.getResource("tictactoe.css").toExternalForm();
+
     private Stage primaryStage;
     private String username = "";
     private VBox mainContainer;
     private int selectedGridSize = 3;
 
-    // ================= ORACLE DATABASE CONFIGURATION =================
-    private static final String DB_URL = "jdbc:oracle:thin:@fsktmdbora.upm.edu.my:1521:fsktm";
-    private static final String DB_USER = "A226920";
-    private static final String DB_PASS = "226920";
-
-    // Initialize Database (Create table if it doesn't exist)
-    static {
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASS);
-             Statement stmt = conn.createStatement()) {
-
-            // Simple table creation - catches exception if table already exists
-            try {
-                String sql = "CREATE TABLE GAME_LEADERBOARD (" +
-                        "PLAYER_NAME VARCHAR2(50) PRIMARY KEY, " +
-                        "TOTAL_WINS INT DEFAULT 0, " +
-                        "TOTAL_GAMES INT DEFAULT 0, " +
-                        "BEST_TIME NUMBER(10, 2) DEFAULT 9999.99, " +
-                        "LAST_MODE VARCHAR2(20), " +
-                        "GRID_SIZE INT)";
-                stmt.executeUpdate(sql);
-                System.out.println("Database table checked/created successfully.");
-            } catch (SQLException e) {
-                // Table likely exists, safe to ignore
-                // System.out.println("Table already exists or error: " + e.getMessage());
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            System.err.println("CRITICAL: Database Connection Failed! Check VPN/Network.");
-        }
-    }
-
-    // Data structure for the TableView (Logic handled by DB now, but this maps the result)
-    public static class LeaderboardEntry {
-        int rank;
-        String playerName;
-        int wins;
-        String bestTime;
-        String mode;
-        int totalGames;
-        int gridSize;
-
-        public LeaderboardEntry(int rank, String playerName, int wins, String bestTime, String mode, int totalGames, int gridSize) {
-            this.rank = rank;
-            this.playerName = playerName;
-            this.wins = wins;
-            this.bestTime = bestTime;
-            this.mode = mode;
-            this.totalGames = totalGames;
-            this.gridSize = gridSize;
-        }
-
-        // Getters are required for PropertyValueFactory if you use it,
-        // but here we used lambdas in the TableView setup which access fields directly.
-    }
-
-    // ================= DATABASE METHODS =================
-
-    public static void addLeaderboardEntry(String playerName, int wonThisGame, double timeInSeconds, String mode, int gridSize) {
-        String checkSql = "SELECT TOTAL_WINS, TOTAL_GAMES, BEST_TIME FROM GAME_LEADERBOARD WHERE PLAYER_NAME = ?";
-        String insertSql = "INSERT INTO GAME_LEADERBOARD (PLAYER_NAME, TOTAL_WINS, TOTAL_GAMES, BEST_TIME, LAST_MODE, GRID_SIZE) VALUES (?, ?, 1, ?, ?, ?)";
-        String updateSql = "UPDATE GAME_LEADERBOARD SET TOTAL_WINS = ?, TOTAL_GAMES = ?, BEST_TIME = ?, LAST_MODE = ?, GRID_SIZE = ? WHERE PLAYER_NAME = ?";
-
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASS)) {
-            // 1. Check if player exists
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
-                checkStmt.setString(1, playerName);
-                ResultSet rs = checkStmt.executeQuery();
-
-                if (rs.next()) {
-                    // 2. Update existing player
-                    int currentWins = rs.getInt("TOTAL_WINS");
-                    int currentGames = rs.getInt("TOTAL_GAMES");
-                    double currentBest = rs.getDouble("BEST_TIME");
-
-                    try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-                        updateStmt.setInt(1, currentWins + wonThisGame);
-                        updateStmt.setInt(2, currentGames + 1);
-                        // Update best time only if new time is faster (and they won, optionally, usually time matters on win)
-                        // Here we just take the lowest time seen
-                        updateStmt.setDouble(3, Math.min(currentBest, timeInSeconds));
-                        updateStmt.setString(4, mode);
-                        updateStmt.setInt(5, gridSize);
-                        updateStmt.setString(6, playerName);
-                        updateStmt.executeUpdate();
-                    }
-                } else {
-                    // 3. Insert new player
-                    try (PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
-                        insertStmt.setString(1, playerName);
-                        insertStmt.setInt(2, wonThisGame);
-                        insertStmt.setDouble(3, timeInSeconds);
-                        insertStmt.setString(4, mode);
-                        insertStmt.setInt(5, gridSize);
-                        insertStmt.executeUpdate();
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("DB Error Adding Entry: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    public static List<LeaderboardEntry> getTopPlayers() {
-        List<LeaderboardEntry> entries = new ArrayList<>();
-        // Fetch top 10 players sorted by Wins (Desc) then Best Time (Asc)
-        String query = "SELECT * FROM GAME_LEADERBOARD ORDER BY TOTAL_WINS DESC, BEST_TIME ASC FETCH FIRST 10 ROWS ONLY";
-
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASS);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-
-            int rank = 1;
-            while (rs.next()) {
-                entries.add(new LeaderboardEntry(
-                        rank++,
-                        rs.getString("PLAYER_NAME"),
-                        rs.getInt("TOTAL_WINS"),
-                        String.format("%.1fs", rs.getDouble("BEST_TIME")),
-                        rs.getString("LAST_MODE"),
-                        rs.getInt("TOTAL_GAMES"),
-                        rs.getInt("GRID_SIZE")
-                ));
-            }
-        } catch (SQLException e) {
-            System.err.println("DB Error Fetching Leaderboard: " + e.getMessage());
-        }
-        return entries;
-    }
-
-    public static void clearLeaderboard() {
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASS);
-             Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate("DELETE FROM GAME_LEADERBOARD");
-        } catch (SQLException e) {
-            System.err.println("Error clearing database: " + e.getMessage());
-        }
-    }
-
     // ================= GUI CODE STARTS HERE =================
 
     @Override
@@ -173,16 +36,9 @@ public class JavaFXLauncher extends Application {
         this.primaryStage = stage;
         stage.setTitle("Tic-Tac-Toe");
 
-        // Auto-start server in background
+        // Auto-start server in background; hosting waits on its readiness, the menu does not
         startServerInBackground();
 
-        // Small delay to let server start
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-
         showUsernameDialog();
     }
 
@@ -262,6 +118,7 @@ public class JavaFXLauncher extends Application {
         root.setBottom(navBar);
 
         Scene scene = new Scene(root, 950, 750);
+        scene.getStylesheets().add(STYLESHEET);
         primaryStage.setScene(scene);
         primaryStage.setResizable(false);
         primaryStage.show();
@@ -300,16 +157,11 @@ public class JavaFXLauncher extends Application {
         btn.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         btn.setMinWidth(300);
         btn.setMinHeight(55);
-        btn.setStyle("-fx-background-color: transparent; -fx-text-fill: white; " +
-                "-fx-border-color: white; -fx-border-width: 2; -fx-border-radius: 12; " +
-                "-fx-background-radius: 12; -fx-cursor: hand;");
+        btn.getStyleClass().add("nav-button");
 
         btn.setOnAction(handler);
 
         btn.setOnMouseEntered(e -> {
-            btn.setStyle("-fx-background-color: rgba(255, 255, 255, 0.25); -fx-text-fill: white; " +
-                    "-fx-border-color: white; -fx-border-width: 2; -fx-border-radius: 12; " +
-                    "-fx-background-radius: 12; -fx-cursor: hand;");
             ScaleTransition st = new ScaleTransition(Duration.millis(150), btn);
             st.setToX(1.08);
             st.setToY(1.08);
@@ -317,9 +169,6 @@ public class JavaFXLauncher extends Application {
         });
 
         btn.setOnMouseExited(e -> {
-            btn.setStyle("-fx-background-color: transparent; -fx-text-fill: white; " +
-                    "-fx-border-color: white; -fx-border-width: 2; -fx-border-radius: 12; " +
-                    "-fx-background-radius: 12; -fx-cursor: hand;");
             ScaleTransition st = new ScaleTransition(Duration.millis(150), btn);
             st.setToX(1.0);
             st.setToY(1.0);
@@ -395,10 +244,12 @@ public class JavaFXLauncher extends Application {
         RadioButton grid3 = createGridRadioButton("3×3", 3, gridGroup);
         RadioButton grid5 = createGridRadioButton("5×5", 5, gridGroup);
         RadioButton grid7 = createGridRadioButton("7×7", 7, gridGroup);
+        RadioButton grid15 = createGridRadioButton("15×15", 15, gridGroup);
+        RadioButton grid19 = createGridRadioButton("19×19", 19, gridGroup);
 
         grid3.setSelected(true);
 
-        gridBox.getChildren().addAll(gridLabel, grid3, grid5, grid7);
+        gridBox.getChildren().addAll(gridLabel, grid3, grid5, grid7, grid15, grid19);
 
         // Add subtle animation
         ScaleTransition st = new ScaleTransition(Duration.millis(300), gridBox);
@@ -438,9 +289,8 @@ public class JavaFXLauncher extends Application {
         Button card = new Button();
         card.setMinWidth(550);
         card.setMinHeight(110);
-        card.setStyle("-fx-background-color: " + color + "; " +
-                "-fx-background-radius: 22; -fx-cursor: hand; " +
-                "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.5), 20, 0, 0, 6);");
+        card.getStyleClass().add("mode-card");
+        card.setStyle("-button-color: " + color + ";");
 
         VBox content = new VBox(10);
         content.setAlignment(Pos.CENTER);
@@ -457,9 +307,6 @@ public class JavaFXLauncher extends Application {
         card.setGraphic(content);
 
         card.setOnMouseEntered(e -> {
-            card.setStyle("-fx-background-color: derive(" + color + ", 18%); " +
-                    "-fx-background-radius: 22; -fx-cursor: hand; " +
-                    "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.7), 25, 0, 0, 10);");
             ScaleTransition st = new ScaleTransition(Duration.millis(200), card);
             st.setToX(1.04);
             st.setToY(1.04);
@@ -467,9 +314,6 @@ public class JavaFXLauncher extends Application {
         });
 
         card.setOnMouseExited(e -> {
-            card.setStyle("-fx-background-color: " + color + "; " +
-                    "-fx-background-radius: 22; -fx-cursor: hand; " +
-                    "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.5), 20, 0, 0, 6);");
             ScaleTransition st = new ScaleTransition(Duration.millis(200), card);
             st.setToX(1.0);
             st.setToY(1.0);
@@ -499,7 +343,7 @@ public class JavaFXLauncher extends Application {
         subLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 17));
         subLabel.setTextFill(Color.web("#ffffff", 0.95));
 
-        TableView<LeaderboardEntry> table = createLeaderboardTable();
+        TableView<LeaderboardStore.LeaderboardEntry> table = createLeaderboardTable();
 
         leaderboardBox.getChildren().addAll(titleLabel, subLabel, table);
         mainContainer.getChildren().add(leaderboardBox);
@@ -510,50 +354,50 @@ public class JavaFXLauncher extends Application {
         fade.play();
     }
 
-    private TableView<LeaderboardEntry> createLeaderboardTable() {
-        TableView<LeaderboardEntry> table = new TableView<>();
+    private TableView<LeaderboardStore.LeaderboardEntry> createLeaderboardTable() {
+        TableView<LeaderboardStore.LeaderboardEntry> table = new TableView<>();
         table.setStyle("-fx-background-color: rgba(255, 255, 255, 0.15); " +
                 "-fx-border-color: rgba(255, 255, 255, 0.4); -fx-border-radius: 18; " +
                 "-fx-background-radius: 18;");
         table.setPrefHeight(420);
         table.setMaxWidth(850);
 
-        TableColumn<LeaderboardEntry, Integer> rankCol = new TableColumn<>("Rank");
+        TableColumn<LeaderboardStore.LeaderboardEntry, Integer> rankCol = new TableColumn<>("Rank");
         rankCol.setCellValueFactory(data ->
                 new SimpleIntegerProperty(data.getValue().rank).asObject());
         rankCol.setPrefWidth(70);
         rankCol.setStyle("-fx-alignment: CENTER;");
 
-        TableColumn<LeaderboardEntry, String> nameCol = new TableColumn<>("Player");
+        TableColumn<LeaderboardStore.LeaderboardEntry, String> nameCol = new TableColumn<>("Player");
         nameCol.setCellValueFactory(data ->
                 new SimpleStringProperty(data.getValue().playerName));
         nameCol.setPrefWidth(180);
 
-        TableColumn<LeaderboardEntry, Integer> gamesCol = new TableColumn<>("Games");
+        TableColumn<LeaderboardStore.LeaderboardEntry, Integer> gamesCol = new TableColumn<>("Games");
         gamesCol.setCellValueFactory(data ->
                 new SimpleIntegerProperty(data.getValue().totalGames).asObject());
         gamesCol.setPrefWidth(90);
         gamesCol.setStyle("-fx-alignment: CENTER;");
 
-        TableColumn<LeaderboardEntry, Integer> winsCol = new TableColumn<>("Wins");
+        TableColumn<LeaderboardStore.LeaderboardEntry, Integer> winsCol = new TableColumn<>("Wins");
         winsCol.setCellValueFactory(data ->
                 new SimpleIntegerProperty(data.getValue().wins).asObject());
         winsCol.setPrefWidth(90);
         winsCol.setStyle("-fx-alignment: CENTER;");
 
-        TableColumn<LeaderboardEntry, String> timeCol = new TableColumn<>("Best Time");
+        TableColumn<LeaderboardStore.LeaderboardEntry, String> timeCol = new TableColumn<>("Best Time");
         timeCol.setCellValueFactory(data ->
                 new SimpleStringProperty(data.getValue().bestTime));
         timeCol.setPrefWidth(110);
         timeCol.setStyle("-fx-alignment: CENTER;");
 
-        TableColumn<LeaderboardEntry, String> modeCol = new TableColumn<>("Mode");
+        TableColumn<LeaderboardStore.LeaderboardEntry, String> modeCol = new TableColumn<>("Mode");
         modeCol.setCellValueFactory(data ->
                 new SimpleStringProperty(data.getValue().mode));
         modeCol.setPrefWidth(110);
         modeCol.setStyle("-fx-alignment: CENTER;");
 
-        TableColumn<LeaderboardEntry, String> gridCol = new TableColumn<>("Grid");
+        TableColumn<LeaderboardStore.LeaderboardEntry, String> gridCol = new TableColumn<>("Grid");
         gridCol.setCellValueFactory(data ->
                 new SimpleStringProperty(data.getValue().gridSize + "×" + data.getValue().gridSize));
         gridCol.setPrefWidth(80);
@@ -562,7 +406,7 @@ public class JavaFXLauncher extends Application {
         table.getColumns().addAll(rankCol, nameCol, gamesCol, winsCol, timeCol, modeCol, gridCol);
 
         // Load data from Oracle DB
-        table.getItems().addAll(getTopPlayers());
+        table.getItems().addAll(LeaderboardStore.getTopPlayers());
 
         return table;
     }
@@ -622,7 +466,7 @@ public class JavaFXLauncher extends Application {
             confirm.setContentText("This action cannot be undone.");
             confirm.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
-                    clearLeaderboard();
+                    LeaderboardStore.clearLeaderboard();
                     showAlert("Success", "Database Leaderboard cleared!", Alert.AlertType.INFORMATION);
                 }
             });
@@ -692,10 +536,18 @@ public class JavaFXLauncher extends Application {
             joinOnlineGame();
         });
 
-        content.getChildren().addAll(titleLabel, hostBtn, joinBtn);
+        Button spectateBtn = new Button("👁 Spectate Game");
+        styleDialogButton(spectateBtn, "#9b59b6");
+        spectateBtn.setOnAction(e -> {
+            dialog.close();
+            spectateOnlineGame();
+        });
+
+        content.getChildren().addAll(titleLabel, hostBtn, joinBtn, spectateBtn);
         dialog.getDialogPane().setContent(content);
         dialog.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
         dialog.getDialogPane().setStyle("-fx-background-color: transparent;");
+        dialog.getDialogPane().getStylesheets().add(STYLESHEET);
 
         dialog.showAndWait();
     }
@@ -704,12 +556,10 @@ public class JavaFXLauncher extends Application {
         btn.setMinWidth(320);
         btn.setMinHeight(65);
         btn.setFont(Font.font("Arial", FontWeight.BOLD, 19));
-        btn.setStyle("-fx-background-color: " + color + "; -fx-text-fill: white; " +
-                "-fx-background-radius: 16; -fx-cursor: hand;");
+        btn.getStyleClass().add("dialog-button");
+        btn.setStyle("-button-color: " + color + ";");
 
         btn.setOnMouseEntered(e -> {
-            btn.setStyle("-fx-background-color: derive(" + color + ", 22%); -fx-text-fill: white; " +
-                    "-fx-background-radius: 16; -fx-cursor: hand;");
             ScaleTransition st = new ScaleTransition(Duration.millis(100), btn);
             st.setToX(1.05);
 
@@ -719,8 +569,6 @@ public class JavaFXLauncher extends Application {
         });
 
         btn.setOnMouseExited(e -> {
-            btn.setStyle("-fx-background-color: " + color + "; -fx-text-fill: white; " +
-                    "-fx-background-radius: 16; -fx-cursor: hand;");
             ScaleTransition st = new ScaleTransition(Duration.millis(100), btn);
             st.setToX(1.0);
             st.setToY(1.0);
@@ -750,7 +598,7 @@ public class JavaFXLauncher extends Application {
             infoBox.setStyle("-fx-background-color: rgba(255, 255, 255, 0.2); " +
                     "-fx-padding: 30; -fx-background-radius: 20;");
 
-            Label serverLabel = new Label("✅ Server is ready!");
+            Label serverLabel = new Label("⏳ Starting server...");
             serverLabel.setFont(Font.font("Arial", FontWeight.BOLD, 20));
             serverLabel.setTextFill(Color.WHITE);
 
@@ -779,16 +627,8 @@ public class JavaFXLauncher extends Application {
             startBtn.setMinWidth(250);
             startBtn.setMinHeight(50);
             startBtn.setFont(Font.font("Arial", FontWeight.BOLD, 18));
-            startBtn.setStyle("-fx-background-color: white; -fx-text-fill: #27ae60; " +
-                    "-fx-background-radius: 25; -fx-cursor: hand;");
-
-            startBtn.setOnMouseEntered(e ->
-                    startBtn.setStyle("-fx-background-color: #ecf0f1; -fx-text-fill: #27ae60; " +
-                            "-fx-background-radius: 25; -fx-cursor: hand;"));
-
-            startBtn.setOnMouseExited(e ->
-                    startBtn.setStyle("-fx-background-color: white; -fx-text-fill: #27ae60; " +
-                            "-fx-background-radius: 25; -fx-cursor: hand;"));
+            startBtn.getStyleClass().add("pill-button");
+            startBtn.setStyle("-button-color: #27ae60;");
 
             startBtn.setOnAction(e -> {
                 infoStage.close();
@@ -799,7 +639,19 @@ public class JavaFXLauncher extends Application {
 
             content.getChildren().addAll(titleLabel, infoBox, startBtn);
 
+            startBtn.setDisable(true);
+            GameServer.readiness().whenComplete((ignored, error) -> Platform.runLater(() -> {
+                if (error == null) {
+                    serverLabel.setText("✅ Server is ready!");
+                } else {
+                    // Most likely another server already owns the port - play on that one
+                    serverLabel.setText("⚠ Port 6000 is in use by another server");
+                }
+                startBtn.setDisable(false);
+            }));
+
             Scene scene = new Scene(content, 500, 550);
+            scene.getStylesheets().add(STYLESHEET);
             infoStage.setScene(scene);
             infoStage.setResizable(false);
             infoStage.show();
@@ -816,6 +668,50 @@ public class JavaFXLauncher extends Application {
         }
     }
 
+    private void spectateOnlineGame() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Spectate Game");
+        dialog.setHeaderText("Watch a game in progress");
+
+        TextField ipField = new TextField("localhost");
+        ipField.setPromptText("Server IP");
+        TextField portField = new TextField("6000");
+        portField.setPromptText("Port");
+        TextField roomField = new TextField();
+        roomField.setPromptText("Room number (shown in the players' window title)");
+
+        GridPane form = new GridPane();
+        form.setHgap(10);
+        form.setVgap(10);
+        form.setPadding(new Insets(20));
+        form.addRow(0, new Label("Server IP:"), ipField);
+        form.addRow(1, new Label("Port:"), portField);
+        form.addRow(2, new Label("Room:"), roomField);
+
+        dialog.getDialogPane().setContent(form);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        dialog.showAndWait().ifPresent(result -> {
+            if (result != ButtonType.OK) {
+                return;
+            }
+            try {
+                String ip = ipField.getText().trim();
+                int port = Integer.parseInt(portField.getText().trim());
+                int roomId = Integer.parseInt(roomField.getText().trim());
+                Stage gameStage = new Stage();
+                OnlineGameClient client = new OnlineGameClient(username, ip.isEmpty() ? "localhost" : ip,
+                        port, selectedGridSize, roomId);
+                client.start(gameStage);
+            } catch (NumberFormatException ex) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Spectate Game");
+                alert.setHeaderText("Invalid port or room number");
+                alert.showAndWait();
+            }
+        });
+    }
+
     private void joinOnlineGame() {
         Stage joinStage = new Stage();
         joinStage.setTitle("Join Game");
@@ -884,31 +780,14 @@ public class JavaFXLauncher extends Application {
         connectBtn.setMinWidth(180);
         connectBtn.setMinHeight(50);
         connectBtn.setFont(Font.font("Arial", FontWeight.BOLD, 18));
-        connectBtn.setStyle("-fx-background-color: white; -fx-text-fill: #2980b9; " +
-                "-fx-background-radius: 25; -fx-cursor: hand;");
-
-        connectBtn.setOnMouseEntered(e ->
-                connectBtn.setStyle("-fx-background-color: #ecf0f1; -fx-text-fill: #2980b9; " +
-                        "-fx-background-radius: 25; -fx-cursor: hand;"));
-
-        connectBtn.setOnMouseExited(e ->
-                connectBtn.setStyle("-fx-background-color: white; -fx-text-fill: #2980b9; " +
-                        "-fx-background-radius: 25; -fx-cursor: hand;"));
+        connectBtn.getStyleClass().add("pill-button");
+        connectBtn.setStyle("-button-color: #2980b9;");
 
         Button cancelBtn = new Button("❌ Cancel");
         cancelBtn.setMinWidth(180);
         cancelBtn.setMinHeight(50);
         cancelBtn.setFont(Font.font("Arial", FontWeight.BOLD, 18));
-        cancelBtn.setStyle("-fx-background-color: rgba(255, 255, 255, 0.3); -fx-text-fill: white; " +
-                "-fx-background-radius: 25; -fx-cursor: hand;");
-
-        cancelBtn.setOnMouseEntered(e ->
-                cancelBtn.setStyle("-fx-background-color: rgba(255, 255, 255, 0.4); -fx-text-fill: white; " +
-                        "-fx-background-radius: 25; -fx-cursor: hand;"));
-
-        cancelBtn.setOnMouseExited(e ->
-                cancelBtn.setStyle("-fx-background-color: rgba(255, 255, 255, 0.3); -fx-text-fill: white; " +
-                        "-fx-background-radius: 25; -fx-cursor: hand;"));
+        cancelBtn.getStyleClass().addAll("pill-button", "ghost");
 
         connectBtn.setOnAction(e -> {
             try {
@@ -946,6 +825,7 @@ public class JavaFXLauncher extends Application {
         content.getChildren().addAll(titleLabel, formBox, buttonBox);
 
         Scene scene = new Scene(content, 520, 650);
+        scene.getStylesheets().add(STYLESHEET);
         joinStage.setScene(scene);
         joinStage.setResizable(false);
         joinStage.show();
@@ -966,7 +846,7 @@ public class JavaFXLauncher extends Application {
     }
 
     private void startServerInBackground() {
-        new Thread(() -> {
+        Thread serverThread = new Thread(() -> {
             try {
                 System.out.println("Starting game server in background...");
                 GameServer.main(new String[]{});
@@ -974,7 +854,9 @@ public class JavaFXLauncher extends Application {
                 System.err.println("Failed to start server: " + e.getMessage());
                 e.printStackTrace();
             }
-        }).start();
+        }, "embedded-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,656 @@
+package com.example.project;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.*;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.*;
+import javafx.stage.Stage;
+import javafx.animation.*;
+import javafx.util.Duration;
+
+import java.util.Arrays;
+
+public class OnlineGameClient {
+
+    private BoardCanvas boardCanvas;
+    private char[][] board;
+    private int size = 3;
+    private Label statusLabel;
+    private Label playerLabel;
+    private Label scoreLabel;
+    private Label timerLabel;
+    private Label latencyLabel;
+    // Bounded, so a long session does not keep every line
+    private final ChatLog chatLog = new ChatLog();
+    private TextField chatInput;
+
+    private GameClientConnection connection;
+    // Messages from the connection's I/O thread, applied in one batch per animation pulse
+    private final InboundQueue inbound = new InboundQueue(this::processMessage);
+
+    private char mySymbol;
+    private boolean myTurn = false;
+
+    // Client-side prediction: our last move is drawn as soon as it is clicked and
+    // numbered, and the server's UPDATE or REJECT carrying that number settles it.
+    // pendingRow is -1 when there is nothing to undo.
+    private int moveSeq = 0;
+    private int pendingSeq = -1;
+    private int pendingRow = -1;
+    private int pendingCol = -1;
+    private int myScore = 0;
+    private int opponentScore = 0;
+
+    private String username;
+    private String serverAddress;
+    private int port;
+    private long gameStartTime;
+    private Timeline timer;
+    // Clock state as last reported by the server
+    private String clockText = "";
+    private double serverGameTime = -1;
+
+    private Stage primaryStage;
+
+    // Set when watching someone else's game instead of playing
+    private final int spectateRoomId;
+    private int roomId = -1;
+
+    public OnlineGameClient(String username, String serverAddress, int port, int gridSize) {
+        this(username, serverAddress, port, gridSize, -1);
+    }
+
+    public OnlineGameClient(String username, String serverAddress, int port, int gridSize, int spectateRoomId) {
+        this.username = username;
+        this.serverAddress = serverAddress;
+        this.port = port;
+        this.size = gridSize;
+        this.spectateRoomId = spectateRoomId;
+    }
+
+    private boolean isSpectator() {
+        return spectateRoomId >= 0;
+    }
+
+    public void start(Stage stage) {
+        this.primaryStage = stage;
+        initializeGUI();
+        connectToServer();
+    }
+
+    private void initializeGUI() {
+        primaryStage.setTitle("Tic-Tac-Toe - Online Multiplayer (" + size + "×" + size + ")");
+
+        board = new char[size][size];
+
+        BorderPane root = new BorderPane();
+        root.getStyleClass().add("online");
+        root.setStyle("-fx-background-color: #2d3436;");
+        root.setPadding(new Insets(15));
+
+        VBox header = createHeader();
+        root.setTop(header);
+
+        HBox centerContent = new HBox(20);
+        centerContent.setAlignment(Pos.CENTER);
+
+        VBox boardContainer = createBoard();
+        VBox chatBox = createChatBox();
+
+        centerContent.getChildren().addAll(boardContainer, chatBox);
+        root.setCenter(centerContent);
+
+        HBox controls = createControls();
+        root.setBottom(controls);
+
+        Scene scene = new Scene(root, 900, 750);
+        scene.getStylesheets().add(JavaFXLauncher.STYLESHEET);
+        primaryStage.setScene(scene);
+        primaryStage.setOnCloseRequest(e -> {
+            stopTimer();
+            disconnect();
+        });
+        primaryStage.show();
+    }
+
+    private VBox createHeader() {
+        VBox header = new VBox(8);
+        header.setAlignment(Pos.CENTER);
+        header.setPadding(new Insets(10));
+
+        playerLabel = new Label(isSpectator()
+                ? "Spectating Room " + spectateRoomId
+                : "Online Multiplayer - " + username + " (" + size + "×" + size + ")");
+        playerLabel.setFont(Font.font("Arial", FontWeight.BOLD, 24));
+        playerLabel.setTextFill(Color.web("#f39c12"));
+
+        statusLabel = new Label("Connecting...");
+        statusLabel.setFont(Font.font("Arial", 16));
+        statusLabel.setTextFill(Color.web("#95a5a6"));
+
+        scoreLabel = new Label(isSpectator() ? "Score - X: 0 | O: 0" : "Score - You: 0 | Opponent: 0");
+        scoreLabel.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+        scoreLabel.setTextFill(Color.web("#3498db"));
+
+        timerLabel = new Label("Time: 0.0s");
+        timerLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
+        timerLabel.setTextFill(Color.web("#e67e22"));
+
+        latencyLabel = new Label("📶 -- ms");
+        latencyLabel.setFont(Font.font("Arial", 13));
+        latencyLabel.setTextFill(Color.web("#95a5a6"));
+
+        header.getChildren().addAll(playerLabel, statusLabel, scoreLabel, timerLabel, latencyLabel);
+        return header;
+    }
+
+    private VBox createBoard() {
+        VBox container = new VBox(15);
+        container.setAlignment(Pos.CENTER);
+
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(board[i], ' ');
+        }
+
+        int cellSize = calculateButtonSize();
+        boardCanvas = new BoardCanvas(size, cellSize, size > 7 ? 2 : 8);
+        boardCanvas.setMarkFont(Font.font("Arial", FontWeight.BOLD, cellSize / 3.0));
+        boardCanvas.setOnCellClicked(this::makeMove);
+
+        container.getChildren().add(boardCanvas);
+        return container;
+    }
+
+    private int calculateButtonSize() {
+        if (size == 3) return 120;
+        if (size == 5) return 80;
+        if (size == 7) return 60;
+        // 15×15 and 19×19 are fitted to the same space as the 7×7 board
+        return 480 / size;
+    }
+
+    private VBox createChatBox() {
+        VBox chatContainer = new VBox(10);
+        chatContainer.setAlignment(Pos.TOP_CENTER);
+        chatContainer.setPrefWidth(250);
+        chatContainer.setStyle("-fx-background-color: #353b48; -fx-background-radius: 10; -fx-padding: 15;");
+
+        Label chatTitle = new Label("💬 Chat");
+        chatTitle.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+        chatTitle.setTextFill(Color.WHITE);
+
+        ListView<String> chatView = chatLog.createView();
+        chatView.setPrefHeight(400);
+
+        chatInput = new TextField();
+        chatInput.setPromptText("Type message...");
+        chatInput.setStyle("-fx-background-color: #2d3436; -fx-text-fill: white; " +
+                "-fx-prompt-text-fill: #95a5a6; -fx-background-radius: 5;");
+        chatInput.setOnAction(e -> sendChat());
+
+        Button sendBtn = new Button("Send");
+        sendBtn.setStyle("-fx-background-color: #3498db; -fx-text-fill: white; " +
+                "-fx-font-weight: bold; -fx-cursor: hand;");
+        sendBtn.setOnAction(e -> sendChat());
+
+        HBox chatInputBox = new HBox(5, chatInput, sendBtn);
+        chatInputBox.setAlignment(Pos.CENTER);
+
+        chatContainer.getChildren().addAll(chatTitle, chatView, chatInputBox);
+        return chatContainer;
+    }
+
+    private HBox createControls() {
+        HBox controls = new HBox(15);
+        controls.setAlignment(Pos.CENTER);
+        controls.setPadding(new Insets(15));
+
+        Button rematchBtn = createStyledButton("🔃 Rematch", "#9b59b6");
+        rematchBtn.setOnAction(e -> requestRematch());
+
+        Button backBtn = createStyledButton("🏠 Back to Menu", "#3498db");
+        backBtn.setOnAction(e -> {
+            stopTimer();
+            disconnect();
+            primaryStage.close();
+        });
+
+        Button exitBtn = createStyledButton("❌ Exit", "#e74c3c");
+        exitBtn.setOnAction(e -> {
+            stopTimer();
+            disconnect();
+            Platform.exit();
+        });
+
+        if (isSpectator()) {
+            controls.getChildren().addAll(backBtn, exitBtn);
+        } else {
+            controls.getChildren().addAll(rematchBtn, backBtn, exitBtn);
+        }
+        return controls;
+    }
+
+    private Button createStyledButton(String text, String color) {
+        Button btn = new Button(text);
+        btn.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        btn.getStyleClass().add("game-button");
+        btn.setStyle("-button-color: " + color + ";");
+        return btn;
+    }
+
+    private void startTimer() {
+        stopTimer();
+        gameStartTime = System.currentTimeMillis();
+        serverGameTime = -1;
+        timer = new Timeline(new KeyFrame(Duration.millis(100), e -> {
+            double elapsed = (System.currentTimeMillis() - gameStartTime) / 1000.0;
+            timerLabel.setText(String.format("Time: %.1fs", elapsed) + clockText);
+        }));
+        timer.setCycleCount(Timeline.INDEFINITE);
+        timer.play();
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    private void connectToServer() {
+        statusLabel.setText("Connecting to server...");
+        statusLabel.setTextFill(Color.web("#95a5a6"));
+
+        // Send username and grid size, or the room we want to watch
+        connection = new GameClientConnection(serverAddress, port, username, inbound::post);
+        connection.connect(isSpectator() ? "SPECTATE:" + spectateRoomId : "GRIDSIZE:" + size);
+    }
+
+    private void processMessage(ServerMessage msg) {
+        switch (msg.type) {
+            case CONNECTED:
+                statusLabel.setText(isSpectator() ? "✓ Connected! Joining room..." : "✓ Connected! Waiting for game...");
+                statusLabel.setTextFill(Color.web("#2ecc71"));
+                break;
+
+            case RECONNECTING:
+                // The connection is trying to get our seat back
+                statusLabel.setText("⚠ Connection lost - reconnecting...");
+                statusLabel.setTextFill(Color.web("#f39c12"));
+                disableAllButtons();
+                showOffline();
+                break;
+
+            case LATENCY:
+                updateLatency();
+                break;
+
+            case CONNECT_FAILED:
+            case CONNECTION_LOST:
+                showConnectionLost(msg.type == ServerMessage.Type.CONNECT_FAILED);
+                break;
+
+            case SYMBOL:
+                // A seat in a new room - clear whatever the previous game left behind
+                resetBoard();
+                mySymbol = msg.symbol;
+                playerLabel.setText(username + " (" + mySymbol + ") - " + size + "×" + size);
+                playerLabel.setTextFill(mySymbol == 'X' ? Color.web("#3498db") : Color.web("#e74c3c"));
+                break;
+
+            case MESSAGE:
+                statusLabel.setText(msg.text);
+                if (msg.text.contains("started")) {
+                    startTimer();
+                }
+                break;
+
+            case YOUR_TURN:
+                myTurn = true;
+                statusLabel.setText("🎯 Your turn!");
+                statusLabel.setTextFill(Color.web("#2ecc71"));
+                enableEmptyButtons();
+                break;
+
+            case WAIT_TURN:
+                myTurn = false;
+                statusLabel.setText("⏳ Opponent's turn...");
+                statusLabel.setTextFill(Color.web("#f39c12"));
+                disableAllButtons();
+                break;
+
+            case UPDATE:
+                if (pendingSeq >= 0 && msg.seq == pendingSeq) {
+                    // Our predicted move, confirmed - it is already on the board
+                    pendingSeq = -1;
+                } else if (msg.row == pendingRow && msg.col == pendingCol) {
+                    // The server filled the cell itself, so a later REJECT must leave it
+                    pendingRow = -1;
+                }
+                updateBoard(msg.row, msg.col, msg.symbol);
+                break;
+
+            case REJECT:
+                if (msg.seq == pendingSeq) {
+                    rollBackMove(msg.text);
+                }
+                break;
+
+            case GAME_OVER:
+                showGameOver(msg.text);
+                break;
+
+            case SCORES:
+                updateScores(msg.scoreX, msg.scoreO);
+                break;
+
+            case CLOCK:
+                updateClock(msg.clock[0], msg.clock[1], msg.clock[2]);
+                break;
+
+            case ROOM:
+                roomId = msg.roomId;
+                if (!isSpectator()) {
+                    primaryStage.setTitle("Tic-Tac-Toe - Online Multiplayer (" + size + "×" + size + ") - Room " + roomId);
+                }
+                break;
+
+            case ROOM_CLOSED:
+                stopTimer();
+                disableAllButtons();
+                statusLabel.setText("The players have left - room closed");
+                statusLabel.setTextFill(Color.web("#95a5a6"));
+                break;
+
+            case SNAPSHOT:
+                applySnapshot(msg.fields);
+                break;
+
+            case RESUME_FAILED:
+                // Our seat is gone - look for a new game instead
+                resetBoard();
+                statusLabel.setText("Previous game has ended - finding a new opponent...");
+                statusLabel.setTextFill(Color.web("#f39c12"));
+                connection.send("GRIDSIZE:" + size);
+                break;
+
+            case GAME_TIME:
+                serverGameTime = msg.seconds;
+                break;
+
+            case CHAT:
+                addChatMessage(msg.sender, msg.text);
+                break;
+
+            case HISTORY:
+                // The room's recent chat follows as CHAT lines, in place of what we had
+                chatLog.clear();
+                break;
+
+            case REMATCH_START:
+                resetBoard();
+                addChatMessage("System", "Rematch started!");
+                startTimer();
+                break;
+
+            case GRIDSIZE_MISMATCH:
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Grid Size Mismatch");
+                alert.setHeaderText("Cannot join game");
+                alert.setContentText("The game room uses a different grid size. Please select the same grid size as the host.");
+                alert.showAndWait();
+                disconnect();
+                primaryStage.close();
+                break;
+
+            default:
+                // SESSION is kept by the connection; anything else is not for this client
+                break;
+        }
+    }
+
+    // Round trip and jitter as measured by the connection: green under 80 ms, red from 200 ms
+    private void updateLatency() {
+        long rtt = connection.getRttMillis();
+        latencyLabel.setText("📶 " + rtt + " ms  ± " + connection.getJitterMillis() + " ms");
+        latencyLabel.setTextFill(Color.web(rtt < 80 ? "#2ecc71" : rtt < 200 ? "#f39c12" : "#e74c3c"));
+    }
+
+    private void showOffline() {
+        latencyLabel.setText("📶 offline");
+        latencyLabel.setTextFill(Color.web("#e74c3c"));
+    }
+
+    private void showConnectionLost(boolean neverConnected) {
+        statusLabel.setText(neverConnected ? "❌ Could not connect" : "❌ Connection lost");
+        statusLabel.setTextFill(Color.web("#e74c3c"));
+        disableAllButtons();
+        stopTimer();
+        showOffline();
+
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Connection Error");
+        if (neverConnected) {
+            alert.setHeaderText("Failed to connect");
+            alert.setContentText("Could not connect to " + serverAddress + ":" + port + ".");
+        } else {
+            alert.setHeaderText("Lost connection to server");
+            alert.setContentText("The connection was interrupted.");
+        }
+        alert.showAndWait();
+    }
+
+    private void updateBoard(int row, int col, char symbol) {
+        board[row][col] = symbol;
+        boardCanvas.setCell(row, col, symbol);
+    }
+
+    // SNAPSHOT:roomId,gridSize,symbol,turn,scoreX,scoreO,active,elapsedMs,xLeftMs,oLeftMs,cells
+    private void applySnapshot(String[] p) {
+        int snapshotSize = Integer.parseInt(p[1].trim());
+        if (snapshotSize != size) {
+            if (!isSpectator()) {
+                return;
+            }
+            // We could not know the room's grid size before joining it
+            size = snapshotSize;
+            initializeGUI();
+        }
+
+        mySymbol = p[2].charAt(0);
+        if (isSpectator()) {
+            playerLabel.setText("Spectating Room " + p[0].trim() + " - " + size + "×" + size);
+        } else {
+            playerLabel.setText(username + " (" + mySymbol + ") - " + size + "×" + size);
+            playerLabel.setTextFill(mySymbol == 'X' ? Color.web("#3498db") : Color.web("#e74c3c"));
+        }
+
+        resetBoard();
+        String cells = p[10];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                char cell = cells.charAt(i * size + j);
+                if (cell != '.') {
+                    updateBoard(i, j, cell);
+                }
+            }
+        }
+
+        updateScores(Integer.parseInt(p[4].trim()), Integer.parseInt(p[5].trim()));
+        if (p[6].equals("1") && timer == null) {
+            startTimer();
+        }
+        updateClock(Long.parseLong(p[7].trim()), Long.parseLong(p[8].trim()), Long.parseLong(p[9].trim()));
+
+        if (isSpectator()) {
+            statusLabel.setText(p[6].equals("1") ? "👁 Watching - " + p[3] + " to move" : "👁 Watching - waiting for the next game");
+        } else {
+            statusLabel.setText("✓ Reconnected");
+        }
+        statusLabel.setTextFill(Color.web("#2ecc71"));
+
+        // Catch up on the room's chat: what we missed while away, or all of it when watching
+        connection.send("HISTORY");
+    }
+
+    // From CLOCK or a SNAPSHOT: time since the game started and each side's remaining clock
+    private void updateClock(long elapsedMs, long xLeft, long oLeft) {
+        // Re-anchor the local display to the server's clock
+        gameStartTime = System.currentTimeMillis() - elapsedMs;
+        if (isSpectator()) {
+            clockText = String.format("  |  Clock - X: %ds | O: %ds", xLeft / 1000, oLeft / 1000);
+            return;
+        }
+        long mine = mySymbol == 'O' ? oLeft : xLeft;
+        long theirs = mySymbol == 'O' ? xLeft : oLeft;
+        clockText = String.format("  |  Clock - You: %ds | Opponent: %ds", mine / 1000, theirs / 1000);
+    }
+
+    private void updateScores(int xScore, int oScore) {
+        if (isSpectator()) {
+            scoreLabel.setText("Score - X: " + xScore + " | O: " + oScore);
+            return;
+        }
+        if (mySymbol == 'X') {
+            myScore = xScore;
+            opponentScore = oScore;
+        } else {
+            myScore = oScore;
+            opponentScore = xScore;
+        }
+
+        scoreLabel.setText("Score - You: " + myScore + " | Opponent: " + opponentScore);
+    }
+
+    private void showGameOver(String result) {
+        disableAllButtons();
+        stopTimer();
+        int[][] line = GameRules.winningLine(board, 'X');
+        boardCanvas.setWinningLine(line != null ? line : GameRules.winningLine(board, 'O'));
+
+        if (isSpectator()) {
+            statusLabel.setText("🏁 " + result);
+            statusLabel.setTextFill(Color.web("#f39c12"));
+            addChatMessage("System", result);
+            return;
+        }
+
+        if (result.contains("wins") && result.contains(String.valueOf(mySymbol))) {
+            statusLabel.setText("🎉 " + result);
+            statusLabel.setTextFill(Color.web("#2ecc71"));
+
+            double gameTime = serverGameTime >= 0
+                    ? serverGameTime
+                    : (System.currentTimeMillis() - gameStartTime) / 1000.0;
+            LeaderboardStore.addLeaderboardEntry(username, myScore, gameTime, "Online", size);
+        } else if (result.contains("wins")) {
+            statusLabel.setText("😔 " + result);
+            statusLabel.setTextFill(Color.web("#e74c3c"));
+        } else {
+            statusLabel.setText("🤝 " + result);
+            statusLabel.setTextFill(Color.web("#f39c12"));
+        }
+
+        PauseTransition pause = new PauseTransition(Duration.millis(500));
+        pause.setOnFinished(e -> {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Game Over");
+            alert.setHeaderText(result);
+            alert.setContentText("Score - You: " + myScore + " | Opponent: " + opponentScore);
+            alert.show();
+        });
+        pause.play();
+    }
+
+    private void sendChat() {
+        String message = chatInput.getText().trim();
+        if (!message.isEmpty() && connection != null) {
+            connection.sendChat(message);
+            chatInput.clear();
+        }
+    }
+
+    private void addChatMessage(String sender, String message) {
+        chatLog.append(sender, message);
+    }
+
+    private void makeMove(int r, int c) {
+        if (isSpectator()) {
+            return;
+        }
+        if (!myTurn) {
+            statusLabel.setText("⚠ Wait for your turn!");
+            statusLabel.setTextFill(Color.web("#e74c3c"));
+            return;
+        }
+
+        if (board[r][c] != ' ' || pendingSeq >= 0 || connection == null) {
+            return;
+        }
+
+        // Draw it now and let the server confirm it, instead of waiting a round trip
+        pendingSeq = ++moveSeq;
+        pendingRow = r;
+        pendingCol = c;
+        updateBoard(r, c, mySymbol);
+        myTurn = false;
+        disableAllButtons();
+        statusLabel.setText("⏳ Opponent's turn...");
+        statusLabel.setTextFill(Color.web("#f39c12"));
+        connection.send("MOVE:" + r + "," + c + "," + pendingSeq);
+    }
+
+    // The server turned down our predicted move: take the mark back off the board.
+    // Only a bad cell leaves the turn with us - the server has moved on otherwise.
+    private void rollBackMove(String reason) {
+        if (pendingRow >= 0) {
+            updateBoard(pendingRow, pendingCol, ' ');
+        }
+        pendingSeq = -1;
+        pendingRow = -1;
+        pendingCol = -1;
+
+        boolean stillOurTurn = reason.startsWith("Cell") || reason.startsWith("Invalid");
+        myTurn = stillOurTurn;
+        boardCanvas.setInteractive(stillOurTurn);
+        statusLabel.setText("⚠ " + reason);
+        statusLabel.setTextFill(Color.web("#e74c3c"));
+    }
+
+    private void requestRematch() {
+        if (connection != null) {
+            connection.send("REMATCH");
+            addChatMessage("You", "Requested rematch");
+        }
+    }
+
+    private void resetBoard() {
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(board[i], ' ');
+        }
+        boardCanvas.clear();
+        boardCanvas.setInteractive(false);
+        myTurn = false;
+        pendingSeq = -1;
+        pendingRow = -1;
+        pendingCol = -1;
+    }
+
+    private void enableEmptyButtons() {
+        boardCanvas.setInteractive(true);
+    }
+
+    private void disableAllButtons() {
+        boardCanvas.setInteractive(false);
+    }
+
+    private void disconnect() {
+        if (connection != null) {
+            // Tells the server we are leaving for good so it does not hold our seat
+            connection.close();
+        }
+    }
+}
\ No newline at end of file
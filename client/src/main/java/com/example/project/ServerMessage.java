@@ -0,0 +1,152 @@
+package com.example.project;
+
+// One decoded line from the server, or a change in the connection itself
+// (the types after REDIRECT never come over the wire). Fields that a
+// type does not use are left at their defaults.
+public final class ServerMessage {
+
+    public enum Type {
+        SYMBOL, MESSAGE, YOUR_TURN, WAIT_TURN, UPDATE, GAME_OVER, SCORES, CLOCK, GAME_TIME,
+        CHAT, REMATCH_START, ROOM, ROOM_CLOSED, SESSION, SNAPSHOT, RESUME_FAILED, GRIDSIZE_MISMATCH, REJECT, HISTORY,
+        // Followed by GameClientConnection itself, never passed on
+        REDIRECT,
+        // Raised by GameClientConnection; LATENCY means a new round-trip sample
+        CONNECTED, RECONNECTING, CONNECT_FAILED, CONNECTION_LOST, LATENCY,
+        // Anything this client does not understand
+        UNKNOWN
+    }
+
+    public final Type type;
+    public final String raw;
+    // MESSAGE, GAME_OVER and SESSION text, the CHAT message, why a move was rejected,
+    // the host:port of a REDIRECT, or why a connection ended
+    public final String text;
+    // CHAT sender
+    public final String sender;
+    // SYMBOL, and the mark placed by UPDATE
+    public final char symbol;
+    // UPDATE cell
+    public final int row;
+    public final int col;
+    // Our number for the move an UPDATE or REJECT answers, -1 for everyone else's moves
+    public final int seq;
+    // SCORES, or the room for ROOM
+    public final int scoreX;
+    public final int scoreO;
+    public final int roomId;
+    // CLOCK: elapsedMs, xRemainingMs, oRemainingMs, moveDeadlineMs
+    public final long[] clock;
+    // GAME_TIME in seconds
+    public final double seconds;
+    // SNAPSHOT fields, split on ','
+    public final String[] fields;
+
+    private ServerMessage(Type type, String raw, String text, String sender, char symbol, int row, int col, int seq,
+                          int scoreX, int scoreO, int roomId, long[] clock, double seconds, String[] fields) {
+        this.type = type;
+        this.raw = raw;
+        this.text = text;
+        this.sender = sender;
+        this.symbol = symbol;
+        this.row = row;
+        this.col = col;
+        this.seq = seq;
+        this.scoreX = scoreX;
+        this.scoreO = scoreO;
+        this.roomId = roomId;
+        this.clock = clock;
+        this.seconds = seconds;
+        this.fields = fields;
+    }
+
+    private static ServerMessage of(Type type, String raw) {
+        return new ServerMessage(type, raw, null, null, ' ', -1, -1, -1, 0, 0, -1, null, 0, null);
+    }
+
+    private static ServerMessage text(Type type, String raw, String text) {
+        return new ServerMessage(type, raw, text, null, ' ', -1, -1, -1, 0, 0, -1, null, 0, null);
+    }
+
+    // A connection event for the UI, in the same stream as the server's lines
+    static ServerMessage connection(Type type, String reason) {
+        return text(type, null, reason);
+    }
+
+    // Never throws: a line that does not parse comes back as UNKNOWN
+    public static ServerMessage decode(String line) {
+        try {
+            if (line.startsWith("UPDATE:")) {
+                String[] p = line.substring(7).split(",");
+                int seq = p.length > 3 ? Integer.parseInt(p[3].trim()) : -1;
+                return new ServerMessage(Type.UPDATE, line, null, null, p[2].trim().charAt(0),
+                        Integer.parseInt(p[0].trim()), Integer.parseInt(p[1].trim()), seq, 0, 0, -1, null, 0, null);
+            } else if (line.equals("YOUR_TURN")) {
+                return of(Type.YOUR_TURN, line);
+            } else if (line.equals("WAIT_TURN")) {
+                return of(Type.WAIT_TURN, line);
+            } else if (line.startsWith("CLOCK:")) {
+                String[] p = line.substring(6).split(",");
+                long[] clock = new long[4];
+                for (int i = 0; i < p.length && i < clock.length; i++) {
+                    clock[i] = Long.parseLong(p[i].trim());
+                }
+                return new ServerMessage(Type.CLOCK, line, null, null, ' ', -1, -1, -1, 0, 0, -1, clock, 0, null);
+            } else if (line.startsWith("SCORES:")) {
+                String[] p = line.substring(7).split(",");
+                return new ServerMessage(Type.SCORES, line, null, null, ' ', -1, -1, -1,
+                        Integer.parseInt(p[0].trim()), Integer.parseInt(p[1].trim()), -1, null, 0, null);
+            } else if (line.startsWith("CHAT:")) {
+                String[] p = line.substring(5).split(":", 2);
+                if (p.length < 2) {
+                    return of(Type.UNKNOWN, line);
+                }
+                return new ServerMessage(Type.CHAT, line, p[1], p[0], ' ', -1, -1, -1, 0, 0, -1, null, 0, null);
+            } else if (line.startsWith("MESSAGE:")) {
+                return text(Type.MESSAGE, line, line.substring(8));
+            } else if (line.startsWith("GAME_OVER:")) {
+                return text(Type.GAME_OVER, line, line.substring(10));
+            } else if (line.startsWith("SYMBOL:")) {
+                return new ServerMessage(Type.SYMBOL, line, null, null, line.charAt(7), -1, -1, -1, 0, 0, -1, null, 0, null);
+            } else if (line.startsWith("GAME_TIME:")) {
+                return new ServerMessage(Type.GAME_TIME, line, null, null, ' ', -1, -1, -1, 0, 0, -1, null,
+                        Double.parseDouble(line.substring(10).trim()), null);
+            } else if (line.equals("REMATCH_START")) {
+                return of(Type.REMATCH_START, line);
+            } else if (line.startsWith("ROOM:")) {
+                return new ServerMessage(Type.ROOM, line, null, null, ' ', -1, -1, -1, 0, 0,
+                        Integer.parseInt(line.substring(5).trim()), null, 0, null);
+            } else if (line.equals("ROOM_CLOSED")) {
+                return of(Type.ROOM_CLOSED, line);
+            } else if (line.startsWith("SESSION:")) {
+                return text(Type.SESSION, line, line.substring(8).trim());
+            } else if (line.startsWith("SNAPSHOT:")) {
+                String[] p = line.substring(9).split(",");
+                if (p.length < 11) {
+                    return of(Type.UNKNOWN, line);
+                }
+                return new ServerMessage(Type.SNAPSHOT, line, null, null, ' ', -1, -1, -1, 0, 0, -1, null, 0, p);
+            } else if (line.equals("RESUME_FAILED")) {
+                return of(Type.RESUME_FAILED, line);
+            } else if (line.startsWith("REJECT:")) {
+                String[] p = line.substring(7).split(",", 2);
+                return new ServerMessage(Type.REJECT, line, p.length > 1 ? p[1] : "", null, ' ', -1, -1,
+                        Integer.parseInt(p[0].trim()), 0, 0, -1, null, 0, null);
+            } else if (line.startsWith("HISTORY:")) {
+                // The count is for clients that want it; the CHAT lines themselves follow
+                return of(Type.HISTORY, line);
+            } else if (line.equals("GRIDSIZE_MISMATCH")) {
+                return of(Type.GRIDSIZE_MISMATCH, line);
+            } else if (line.startsWith("REDIRECT:")) {
+                return text(Type.REDIRECT, line, line.substring(9).trim());
+            }
+        } catch (RuntimeException e) {
+            // Malformed numbers or missing fields
+        }
+        return of(Type.UNKNOWN, line);
+    }
+
+    @Override
+    public String toString() {
+        return raw != null ? raw : type + (text != null ? ":" + text : "");
+    }
+}
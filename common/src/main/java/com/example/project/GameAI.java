@@ -0,0 +1,177 @@
+package com.example.project;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Computer opponent for local games, kept free of JavaFX so it can be benchmarked.
+//   Easy    a random empty cell
+//   Medium  win if possible, otherwise block, otherwise random
+//   Hard    minimax with alpha-beta pruning, cut off at depth 6. Above 7×7 a full-width
+//           search never finishes, so it looks one reply ahead and only at cells next
+//           to stones already on the board.
+// The board passed in is modified during the search and restored before returning.
+public class GameAI {
+
+    private static final int MAX_DEPTH = 6;
+    private static final int LARGE_GRID = 7;
+    private static final int LARGE_GRID_DEPTH = 1;
+
+    private final char aiSymbol;
+    private final char playerSymbol;
+    private final Random random;
+
+    // Search statistics for the last chooseMove call
+    private long nodes;
+    private int maxDepth;
+
+    public GameAI(char aiSymbol, char playerSymbol) {
+        this(aiSymbol, playerSymbol, new Random());
+    }
+
+    public GameAI(char aiSymbol, char playerSymbol, Random random) {
+        this.aiSymbol = aiSymbol;
+        this.playerSymbol = playerSymbol;
+        this.random = random;
+    }
+
+    public int[] chooseMove(char[][] board, String difficulty) {
+        nodes = 0;
+        maxDepth = 0;
+        switch (difficulty.toLowerCase()) {
+            case "easy":
+                return getRandomMove(board);
+            case "medium":
+                return getMediumMove(board);
+            case "hard":
+                return getBestMove(board);
+            default:
+                return null;
+        }
+    }
+
+    public long getNodes() { return nodes; }
+    public int getMaxDepth() { return maxDepth; }
+
+    public int[] getRandomMove(char[][] board) {
+        List<int[]> emptyCells = new ArrayList<>();
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board.length; j++) {
+                if (board[i][j] == ' ') {
+                    emptyCells.add(new int[]{i, j});
+                }
+            }
+        }
+        return emptyCells.isEmpty() ? null : emptyCells.get(random.nextInt(emptyCells.size()));
+    }
+
+    public int[] getMediumMove(char[][] board) {
+        int[] winMove = findWinningMove(board, aiSymbol);
+        if (winMove != null) return winMove;
+
+        int[] blockMove = findWinningMove(board, playerSymbol);
+        if (blockMove != null) return blockMove;
+
+        return getRandomMove(board);
+    }
+
+    public int[] getBestMove(char[][] board) {
+        int bestScore = Integer.MIN_VALUE;
+        int[] bestMove = null;
+
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board.length; j++) {
+                if (isCandidate(board, i, j)) {
+                    board[i][j] = aiSymbol;
+                    int score = minimax(board, 0, false, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                    board[i][j] = ' ';
+
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestMove = new int[]{i, j};
+                    }
+                }
+            }
+        }
+
+        if (bestMove == null && board.length > LARGE_GRID && board[board.length / 2][board.length / 2] == ' ') {
+            // Empty large board - nothing to play next to yet
+            return new int[]{board.length / 2, board.length / 2};
+        }
+        return bestMove != null ? bestMove : getRandomMove(board);
+    }
+
+    public int minimax(char[][] board, int depth, boolean isMaximizing, int alpha, int beta) {
+        nodes++;
+        maxDepth = Math.max(maxDepth, depth + 1); // +1 for the root move
+        if (depth > (board.length > LARGE_GRID ? LARGE_GRID_DEPTH : MAX_DEPTH)) return 0; // Limit depth for larger grids
+
+        if (GameRules.checkWin(board, aiSymbol)) return 10 - depth;
+        if (GameRules.checkWin(board, playerSymbol)) return depth - 10;
+        if (GameRules.isBoardFull(board)) return 0;
+
+        int size = board.length;
+        if (isMaximizing) {
+            int bestScore = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (isCandidate(board, i, j)) {
+                        board[i][j] = aiSymbol;
+                        bestScore = Math.max(bestScore, minimax(board, depth + 1, false, alpha, beta));
+                        board[i][j] = ' ';
+                        alpha = Math.max(alpha, bestScore);
+                        if (beta <= alpha) break;
+                    }
+                }
+            }
+            return bestScore;
+        } else {
+            int bestScore = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (isCandidate(board, i, j)) {
+                        board[i][j] = playerSymbol;
+                        bestScore = Math.min(bestScore, minimax(board, depth + 1, true, alpha, beta));
+                        board[i][j] = ' ';
+                        beta = Math.min(beta, bestScore);
+                        if (beta <= alpha) break;
+                    }
+                }
+            }
+            return bestScore;
+        }
+    }
+
+    // Every empty cell on small boards; on large ones only empty cells touching a stone
+    private static boolean isCandidate(char[][] board, int i, int j) {
+        if (board[i][j] != ' ') return false;
+        int size = board.length;
+        if (size <= LARGE_GRID) return true;
+        for (int di = -1; di <= 1; di++) {
+            for (int dj = -1; dj <= 1; dj++) {
+                int r = i + di;
+                int c = j + dj;
+                if (r >= 0 && r < size && c >= 0 && c < size && board[r][c] != ' ') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int[] findWinningMove(char[][] board, char symbol) {
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board.length; j++) {
+                if (board[i][j] == ' ') {
+                    nodes++;
+                    maxDepth = Math.max(maxDepth, 1);
+                    board[i][j] = symbol;
+                    boolean wins = GameRules.checkWin(board, symbol);
+                    board[i][j] = ' ';
+                    if (wins) return new int[]{i, j};
+                }
+            }
+        }
+        return null;
+    }
+}
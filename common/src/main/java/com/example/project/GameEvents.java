@@ -0,0 +1,77 @@
+package com.example.project;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// Java Flight Recorder events for game activity, so latency spikes in a recording
+// can be lined up with the moves, matches and AI searches that caused them.
+// All of them are off unless a recording enables them (see server/src/main/resources/tictactoe.jfc);
+// a disabled event is a begin/commit pair on an object the JIT usually never allocates.
+public final class GameEvents {
+
+    private GameEvents() {}
+
+    @Name("com.example.project.Move")
+    @Label("Move")
+    @Category({"Tic-Tac-Toe", "Server"})
+    @Description("A move processed by a game room, including any wait in the room's shard queue")
+    public static class Move extends Event {
+        @Label("Room")
+        public int roomId;
+
+        @Label("Grid Size")
+        public int gridSize;
+
+        @Label("Row")
+        public int row;
+
+        @Label("Column")
+        public int col;
+    }
+
+    @Name("com.example.project.Match")
+    @Label("Match")
+    @Category({"Tic-Tac-Toe", "Server"})
+    @Description("A waiting player paired by the matchmaker")
+    public static class Match extends Event {
+        @Label("Grid Size")
+        public int gridSize;
+
+        @Label("Wait")
+        @Timespan(Timespan.MILLISECONDS)
+        public long waitMs;
+
+        @Label("Rating Gap")
+        public double ratingGap;
+
+        @Label("Candidates Scanned")
+        @Description("Waiting tickets the matchmaker compared this player against")
+        public int candidatesScanned;
+
+        @Label("Players Waiting")
+        public int playersWaiting;
+    }
+
+    @Name("com.example.project.AISearch")
+    @Label("AI Search")
+    @Category({"Tic-Tac-Toe", "Client"})
+    @Description("One computer move in a local game; the event duration is the search time")
+    public static class AISearch extends Event {
+        @Label("Difficulty")
+        public String difficulty;
+
+        @Label("Grid Size")
+        public int gridSize;
+
+        @Label("Max Depth")
+        public int maxDepth;
+
+        @Label("Nodes")
+        @Description("Positions evaluated")
+        public long nodes;
+    }
+}
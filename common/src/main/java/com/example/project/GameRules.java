@@ -0,0 +1,143 @@
+package com.example.project;
+
+// Board rules shared by the server rooms, the local game window and the AI.
+// Boards are square char grids with ' ' for empty cells. A 3×3 board needs three in
+// a row, 5×5 needs four and anything larger needs five.
+public final class GameRules {
+
+    // The board sizes the clients offer. Anything else is refused at the door, which also
+    // keeps sizes within what the checkpoint and match log formats can store.
+    private static final int[] GRID_SIZES = {3, 5, 7, 15, 19};
+
+    private GameRules() {}
+
+    public static boolean isSupportedGridSize(int gridSize) {
+        for (int size : GRID_SIZES) {
+            if (size == gridSize) return true;
+        }
+        return false;
+    }
+
+    public static int winLength(int gridSize) {
+        return gridSize == 3 ? 3 : (gridSize == 5 ? 4 : 5);
+    }
+
+    public static boolean checkWin(char[][] board, char symbol) {
+        int size = board.length;
+        int winLength = winLength(size);
+
+        // Rows
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j <= size - winLength; j++) {
+                boolean win = true;
+                for (int k = 0; k < winLength; k++) {
+                    if (board[i][j + k] != symbol) {
+                        win = false;
+                        break;
+                    }
+                }
+                if (win) return true;
+            }
+        }
+
+        // Columns
+        for (int i = 0; i <= size - winLength; i++) {
+            for (int j = 0; j < size; j++) {
+                boolean win = true;
+                for (int k = 0; k < winLength; k++) {
+                    if (board[i + k][j] != symbol) {
+                        win = false;
+                        break;
+                    }
+                }
+                if (win) return true;
+            }
+        }
+
+        // Diagonals (top-left to bottom-right)
+        for (int i = 0; i <= size - winLength; i++) {
+            for (int j = 0; j <= size - winLength; j++) {
+                boolean win = true;
+                for (int k = 0; k < winLength; k++) {
+                    if (board[i + k][j + k] != symbol) {
+                        win = false;
+                        break;
+                    }
+                }
+                if (win) return true;
+            }
+        }
+
+        // Diagonals (top-right to bottom-left)
+        for (int i = 0; i <= size - winLength; i++) {
+            for (int j = winLength - 1; j < size; j++) {
+                boolean win = true;
+                for (int k = 0; k < winLength; k++) {
+                    if (board[i + k][j - k] != symbol) {
+                        win = false;
+                        break;
+                    }
+                }
+                if (win) return true;
+            }
+        }
+
+        return false;
+    }
+
+    // The cells ({row, col}) of a winning line for symbol, or null. Used to highlight
+    // the line once a game is over, so unlike checkWin it is not tuned for the AI.
+    public static int[][] winningLine(char[][] board, char symbol) {
+        int size = board.length;
+        int winLength = winLength(size);
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                for (int[] d : directions) {
+                    int endI = i + d[0] * (winLength - 1);
+                    int endJ = j + d[1] * (winLength - 1);
+                    if (endI >= size || endJ < 0 || endJ >= size) continue;
+
+                    int k = 0;
+                    while (k < winLength && board[i + d[0] * k][j + d[1] * k] == symbol) k++;
+                    if (k == winLength) {
+                        int[][] line = new int[winLength][];
+                        for (k = 0; k < winLength; k++) {
+                            line[k] = new int[]{i + d[0] * k, j + d[1] * k};
+                        }
+                        return line;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    public static boolean isBoardFull(char[][] board) {
+        for (char[] row : board) {
+            for (char cell : row) {
+                if (cell == ' ') return false;
+            }
+        }
+        return true;
+    }
+
+    // Parses the "r,c" or "r,c,seq" part of a MOVE line into {row, col, seq}, with seq -1
+    // when the client did not number the move. Returns null if it is not two or three integers.
+    public static int[] parseMove(String coordinates) {
+        String[] parts = coordinates.split(",");
+        if (parts.length != 2 && parts.length != 3) {
+            return null;
+        }
+        try {
+            int seq = parts.length == 3 ? Integer.parseInt(parts[2].trim()) : -1;
+            if (seq < -1) {
+                return null;
+            }
+            return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()), seq};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.project;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free log-linear histogram for latencies and wait times.
+// Values below 16 get their own bucket; above that every power of two is split into
+// 16 sub-buckets, so any recorded value is reported within ~6% of its real value.
+// The unit is whatever the caller records (ms for waits, µs for move latency).
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final String name;
+    private final String unit;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    public LatencyHistogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) Math.max(value, 0);
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exp - SUB_BITS;
+        int mantissa = (int) ((value >>> shift) & (SUB_COUNT - 1));
+        return (shift + 1) * SUB_COUNT + mantissa;
+    }
+
+    static long lowerBoundOf(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        int mantissa = bucket % SUB_COUNT;
+        return (long) (SUB_COUNT + mantissa) << shift;
+    }
+
+    static long upperBoundOf(int bucket) {
+        return bucket + 1 < BUCKETS ? lowerBoundOf(bucket + 1) - 1 : Long.MAX_VALUE;
+    }
+
+    public void record(long value) {
+        counts.incrementAndGet(bucketOf(value));
+        total.increment();
+        sum.add(value);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public double mean() {
+        long n = total.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    // Returns the upper bound of the bucket holding the given percentile (0-100)
+    public long percentile(double p) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * p / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKETS - 1);
+    }
+
+    public long max() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return upperBoundOf(i);
+            }
+        }
+        return 0;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+    }
+
+    public String getName() { return name; }
+    public String getUnit() { return unit; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d mean=%.1f%s p50=%d%s p99=%d%s p999=%d%s max=%d%s",
+                name, count(), mean(), unit, percentile(50), unit, percentile(99), unit,
+                percentile(99.9), unit, max(), unit);
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.project;
+
+import java.sql.*;
+import java.util.*;
+
+// Oracle-backed persistence for the leaderboard and player ratings.
+// Kept free of JavaFX so the server can use it without loading the UI.
+public class LeaderboardStore {
+
+    // ================= ORACLE DATABASE CONFIGURATION =================
+    private static final String DB_URL = "jdbc:oracle:thin:@fsktmdbora.upm.edu.my:1521:fsktm";
+    private static final String DB_USER = "A226920";
+    private static final String DB_PASS = "226920";
+
+    // Initialize Database (Create tables if they don't exist)
+    static {
+        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASS);
+             Statement stmt = conn.createStatement()) {
+
+            // Simple table creation - catches exception if table already exists
+            try {
+                String sql = "CREATE TABLE GAME_LEADERBOARD (" +
+                        "PLAYER_NAME VARCHAR2(50) PRIMARY KEY, " +
+                        "TOTAL_WINS INT DEFAULT 0, " +
+                        "TOTAL_GAMES INT DEFAULT 0, " +
+                        "BEST_TIME NUMBER(10, 2) DEFAULT 9999.99, " +
+                        "LAST_MODE VARCHAR2(20), " +
+                        "GRID_SIZE INT)";
+                stmt.executeUpdate(sql);
+                System.out.println("Database table checked/created successfully.");
+            } catch (SQLException e) {
+                // Table likely exists, safe to ignore
+            }
+
+            try {
+                String sql = "CREATE TABLE PLAYER_RATINGS (" +
+                        "PLAYER_NAME VARCHAR2(50) PRIMARY KEY, " +
+                        "RATING NUMBER(7, 2) DEFAULT 1500, " +
+                        "RATED_GAMES INT DEFAULT 0)";
+                stmt.executeUpdate(sql);
+            } catch (SQLException e) {
+                // Table likely exists, safe to ignore
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            System.err.println("CRITICAL: Database Connection Failed! Check VPN/Network.");
+        }
+    }
+
+    // Data structure for the TableView (Logic handled by DB now, but this maps the result)
+    public static class LeaderboardEntry {
+        int rank;
+        String playerName;
+        int wins;
+        String bestTime;
+        String mode;
+        int totalGames;
+        int gridSize;
+
+        public LeaderboardEntry(int rank, String playerName, int wins, String bestTime, String mode, int totalGames, int gridSize) {
+            this.rank = rank;
+            this.playerName = playerName;
+            this.wins = wins;
+            this.bestTime = bestTime;
+            this.mode = mode;
+            this.totalGames = totalGames;
+            this.gridSize = gridSize;
+        }
+    }
+
+    // One row of PLAYER_RATINGS
+    public static class RatingRecord {
+        final String playerName;
+        final double rating;
+        final int ratedGames;
+
+        public RatingRecord(String playerName, double rating, int ratedGames) {
+            this.playerName = playerName;
+            this.rating = rating;
+            this.ratedGames = ratedGames;
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASS);
+    }
+
+    // ================= LEADERBOARD =================
+
+    public static void addLeaderboardEntry(String playerName, int wonThisGame, double timeInSeconds, String mode, int gridSize) {
+        String checkSql = "SELECT TOTAL_WINS, TOTAL_GAMES, BEST_TIME FROM GAME_LEADERBOARD WHERE PLAYER_NAME = ?";
+        String insertSql = "INSERT INTO GAME_LEADERBOARD (PLAYER_NAME, TOTAL_WINS, TOTAL_GAMES, BEST_TIME, LAST_MODE, GRID_SIZE) VALUES (?, ?, 1, ?, ?, ?)";
+        String updateSql = "UPDATE GAME_LEADERBOARD SET TOTAL_WINS = ?, TOTAL_GAMES = ?, BEST_TIME = ?, LAST_MODE = ?, GRID_SIZE = ? WHERE PLAYER_NAME = ?";
+
+        try (Connection conn = connect()) {
+            // 1. Check if player exists
+            try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
+                checkStmt.setString(1, playerName);
+                ResultSet rs = checkStmt.executeQuery();
+
+                if (rs.next()) {
+                    // 2. Update existing player
+                    int currentWins = rs.getInt("TOTAL_WINS");
+                    int currentGames = rs.getInt("TOTAL_GAMES");
+                    double currentBest = rs.getDouble("BEST_TIME");
+
+                    try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
+                        updateStmt.setInt(1, currentWins + wonThisGame);
+                        updateStmt.setInt(2, currentGames + 1);
+                        // Update best time only if new time is faster (and they won, optionally, usually time matters on win)
+                        // Here we just take the lowest time seen
+                        updateStmt.setDouble(3, Math.min(currentBest, timeInSeconds));
+                        updateStmt.setString(4, mode);
+                        updateStmt.setInt(5, gridSize);
+                        updateStmt.setString(6, playerName);
+                        updateStmt.executeUpdate();
+                    }
+                } else {
+                    // 3. Insert new player
+                    try (PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
+                        insertStmt.setString(1, playerName);
+                        insertStmt.setInt(2, wonThisGame);
+                        insertStmt.setDouble(3, timeInSeconds);
+                        insertStmt.setString(4, mode);
+                        insertStmt.setInt(5, gridSize);
+                        insertStmt.executeUpdate();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("DB Error Adding Entry: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public static List<LeaderboardEntry> getTopPlayers() {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        // Fetch top 10 players sorted by Wins (Desc) then Best Time (Asc)
+        String query = "SELECT * FROM GAME_LEADERBOARD ORDER BY TOTAL_WINS DESC, BEST_TIME ASC FETCH FIRST 10 ROWS ONLY";
+
+        try (Connection conn = connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+
+            int rank = 1;
+            while (rs.next()) {
+                entries.add(new LeaderboardEntry(
+                        rank++,
+                        rs.getString("PLAYER_NAME"),
+                        rs.getInt("TOTAL_WINS"),
+                        String.format("%.1fs", rs.getDouble("BEST_TIME")),
+                        rs.getString("LAST_MODE"),
+                        rs.getInt("TOTAL_GAMES"),
+                        rs.getInt("GRID_SIZE")
+                ));
+            }
+        } catch (SQLException e) {
+            System.err.println("DB Error Fetching Leaderboard: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    public static void clearLeaderboard() {
+        try (Connection conn = connect();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM GAME_LEADERBOARD");
+        } catch (SQLException e) {
+            System.err.println("Error clearing database: " + e.getMessage());
+        }
+    }
+
+    // ================= RATINGS =================
+
+    // Returns null when the player has never been rated. Throws when the DB could not be read,
+    // so the caller does not mistake an outage for a new player.
+    public static RatingRecord loadRating(String playerName) throws SQLException {
+        String query = "SELECT RATING, RATED_GAMES FROM PLAYER_RATINGS WHERE PLAYER_NAME = ?";
+
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, playerName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new RatingRecord(playerName, rs.getDouble("RATING"), rs.getInt("RATED_GAMES"));
+                }
+            }
+        }
+        return null;
+    }
+
+    // Upserts a batch of ratings in one round trip. Returns false if the batch was not written.
+    public static boolean saveRatings(Collection<RatingRecord> records) {
+        if (records.isEmpty()) {
+            return true;
+        }
+
+        String mergeSql = "MERGE INTO PLAYER_RATINGS t " +
+                "USING (SELECT ? AS PLAYER_NAME, ? AS RATING, ? AS RATED_GAMES FROM DUAL) s " +
+                "ON (t.PLAYER_NAME = s.PLAYER_NAME) " +
+                "WHEN MATCHED THEN UPDATE SET t.RATING = s.RATING, t.RATED_GAMES = s.RATED_GAMES " +
+                "WHEN NOT MATCHED THEN INSERT (PLAYER_NAME, RATING, RATED_GAMES) " +
+                "VALUES (s.PLAYER_NAME, s.RATING, s.RATED_GAMES)";
+
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(mergeSql)) {
+            conn.setAutoCommit(false);
+            for (RatingRecord record : records) {
+                stmt.setString(1, record.playerName);
+                stmt.setDouble(2, record.rating);
+                stmt.setInt(3, record.ratedGames);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("DB Error Saving Ratings: " + e.getMessage());
+            return false;
+        }
+    }
+}
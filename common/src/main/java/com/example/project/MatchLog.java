@@ -0,0 +1,493 @@
+package com.example.project;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Append-only file of finished games: who played, the grid, every move in order with
+// the time it was made, and the result. The server logs its online games here, so a
+// player's history and any replay are read from this file instead of the database.
+// Games are queued by whoever finishes them and written in batches by a background
+// flusher, one positional FileChannel write per batch. Reads go through read-only
+// memory maps of the file, and an in-memory index from player name to record offsets,
+// rebuilt by one pass over the file when the log is opened, finds a player's games
+// without scanning the rest.
+// The file is a header (magic, version) followed by length-prefixed records. A record
+// cut short by a crash is dropped when the log is next opened. One process writes a
+// file at a time: open() takes an exclusive lock, and a second process gets a file of
+// its own instead.
+public class MatchLog implements Closeable {
+
+    private static final int MAGIC = 0x5454544D; // "TTTM"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 6;
+    private static final int BATCH_SIZE = 64;
+    private static final long FLUSH_INTERVAL_MS = 1_000;
+    // Longer names are cut, so a record stays small whatever a client calls itself
+    private static final int MAX_NAME_LENGTH = 64;
+    // Reads map the file in windows this long, each overlapping the next by the largest
+    // possible record (three clipped names and 255x255 moves), so a record always lies
+    // whole in the window its start falls in and the log can outgrow a single mapping
+    private static final long WINDOW_BYTES = 64L << 20;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    // One game as written to, or read back from, the log
+    public static final class Match {
+        public final long startedAt;
+        public final String mode;
+        public final String playerX;
+        public final String playerO;
+        public final int gridSize;
+        // 'X', 'O', or ' ' for a draw
+        public final char winner;
+        public final int durationMs;
+        // row * gridSize + col of each move, X first, and when it was made (ms since the start)
+        public final short[] cells;
+        public final int[] atMs;
+
+        public Match(long startedAt, String mode, String playerX, String playerO, int gridSize, char winner,
+                     int durationMs, short[] cells, int[] atMs) {
+            this.startedAt = startedAt;
+            this.mode = clip(mode);
+            this.playerX = clip(playerX);
+            this.playerO = clip(playerO);
+            this.gridSize = gridSize;
+            this.winner = winner;
+            this.durationMs = durationMs;
+            this.cells = cells;
+            this.atMs = atMs;
+        }
+
+        public int moveCount() { return cells.length; }
+        public int row(int move) { return cells[move] / gridSize; }
+        public int col(int move) { return cells[move] % gridSize; }
+        public char symbol(int move) { return move % 2 == 0 ? 'X' : 'O'; }
+
+        // The board after the first n moves, for stepping through a replay
+        public char[][] boardAfter(int n) {
+            char[][] board = new char[gridSize][gridSize];
+            for (char[] row : board) {
+                Arrays.fill(row, ' ');
+            }
+            for (int i = 0; i < n && i < cells.length; i++) {
+                board[row(i)][col(i)] = symbol(i);
+            }
+            return board;
+        }
+    }
+
+    // Collects one game's moves while it is played. Not thread-safe: it belongs to
+    // the shard thread that runs the game's room.
+    public static final class Recorder {
+        private final int gridSize;
+        private String playerX;
+        private String playerO;
+        private long startedAt;
+        private long startNanos;
+        private short[] cells = new short[16];
+        private int[] atMs = new int[16];
+        private int count = 0;
+
+        public Recorder(int gridSize) {
+            this.gridSize = gridSize;
+        }
+
+        public void start(String playerX, String playerO) {
+            resume(playerX, playerO, System.currentTimeMillis(), 0, new short[0], new int[0]);
+        }
+
+        // Carries on with a game that was interrupted elapsedMs into play
+        public void resume(String playerX, String playerO, long startedAt, long elapsedMs, short[] cells, int[] atMs) {
+            this.playerX = playerX;
+            this.playerO = playerO;
+            this.startedAt = startedAt;
+            this.startNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(elapsedMs);
+            this.cells = Arrays.copyOf(cells, Math.max(16, cells.length * 2));
+            this.atMs = Arrays.copyOf(atMs, this.cells.length);
+            this.count = cells.length;
+        }
+
+        public void move(int row, int col) {
+            if (count == cells.length) {
+                cells = Arrays.copyOf(cells, count * 2);
+                atMs = Arrays.copyOf(atMs, count * 2);
+            }
+            cells[count] = (short) (row * gridSize + col);
+            atMs[count] = elapsedMs();
+            count++;
+        }
+
+        public Match finish(String mode, char winner) {
+            return new Match(startedAt, mode, playerX, playerO, gridSize, winner, elapsedMs(),
+                    getCells(), getMoveTimes());
+        }
+
+        public String getPlayerX() { return playerX; }
+        public String getPlayerO() { return playerO; }
+        public long getStartedAt() { return startedAt; }
+        public short[] getCells() { return Arrays.copyOf(cells, count); }
+        public int[] getMoveTimes() { return Arrays.copyOf(atMs, count); }
+
+        private int elapsedMs() {
+            return (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+    }
+
+    // Offsets of one player's records, oldest first
+    private static final class Offsets {
+        long[] values = new long[8];
+        int size = 0;
+
+        void add(long offset) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = offset;
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Queue<Match> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ScheduledExecutorService flusher;
+    // Guarded by itself
+    private final Map<String, Offsets> index = new HashMap<>();
+    // End of the last complete record. Written by the flusher only.
+    private volatile long end;
+    // Window number -> its mapping. Guarded by this.
+    private final Map<Long, MappedByteBuffer> windows = new HashMap<>();
+
+    // Opens file, or if another process is writing it, a file of our own next to it
+    // (name-pid.ext), so neither overwrites the other's records
+    public static MatchLog open(Path file) throws IOException {
+        try {
+            return new MatchLog(file);
+        } catch (FileLockedException e) {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            String own = dot > 0
+                    ? name.substring(0, dot) + "-" + ProcessHandle.current().pid() + name.substring(dot)
+                    : name + "-" + ProcessHandle.current().pid();
+            System.err.println("Match log " + file + " is in use, writing to " + own);
+            return new MatchLog(file.resolveSibling(own));
+        }
+    }
+
+    private static class FileLockedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        FileLockedException(Path file) {
+            super(file + " is locked");
+        }
+    }
+
+    private MatchLog(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Held until the channel closes
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null; // this process already has it open
+            }
+            if (lock == null) {
+                throw new FileLockedException(file);
+            }
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putShort(VERSION);
+                header.flip();
+                channel.write(header, 0);
+                end = HEADER_BYTES;
+            } else {
+                end = rebuildIndex();
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "match-log");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Queues a finished game. It is on disk, and in history(), after the next flush.
+    public void append(Match match) {
+        // Checked here too so a bad game fails its caller rather than the flusher's batch
+        checkGridSize(match.gridSize);
+        pending.add(match);
+        if (pendingCount.incrementAndGet() >= BATCH_SIZE) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    // A player's most recent games, newest first, at most limit of them
+    public List<Match> history(String player, int limit) {
+        long[] offsets;
+        synchronized (index) {
+            Offsets entry = index.get(player);
+            if (entry == null) {
+                return new ArrayList<>();
+            }
+            int n = Math.min(limit, entry.size);
+            offsets = new long[n];
+            for (int i = 0; i < n; i++) {
+                offsets[i] = entry.values[entry.size - 1 - i];
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(offsets.length);
+        if (offsets.length == 0) {
+            return matches;
+        }
+        long size = end;
+        try {
+            for (long offset : offsets) {
+                matches.add(decode(window(offset, size), offsetInWindow(offset) + 4));
+            }
+        } catch (IOException e) {
+            System.err.println("Match log " + file + " could not be read: " + e.getMessage());
+        }
+        return matches;
+    }
+
+    // Writes what is queued, then stops the flusher
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+    }
+
+    // ================= WRITING =================
+
+    // Encodes every queued game into one buffer and writes it at the end of the file.
+    // Runs on the flusher, or on the closing thread once the flusher has stopped.
+    private void flush() {
+        List<Match> batch = new ArrayList<>();
+        Match match;
+        while ((match = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(match);
+        }
+        if (batch.isEmpty() || !channel.isOpen()) {
+            return;
+        }
+
+        List<byte[]> records = new ArrayList<>(batch.size());
+        int total = 0;
+        for (Match m : batch) {
+            byte[] record = encode(m);
+            records.add(record);
+            total += record.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] record : records) {
+            buffer.put(record);
+        }
+        buffer.flip();
+
+        long start = end;
+        try {
+            long position = start;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("Match log " + file + " write failed, " + batch.size() + " games lost: " + e.getMessage());
+            return;
+        }
+        end = start + total;
+
+        long offset = start;
+        synchronized (index) {
+            for (int i = 0; i < batch.size(); i++) {
+                addToIndex(batch.get(i), offset);
+                offset += records.get(i).length;
+            }
+        }
+    }
+
+    private static byte[] encode(Match m) {
+        checkGridSize(m.gridSize);
+        byte[] mode = utf8(m.mode);
+        byte[] x = utf8(m.playerX);
+        byte[] o = utf8(m.playerO);
+        int length = 8 + 4 + 1 + 1 + 2 + mode.length + 2 + x.length + 2 + o.length + 2 + m.cells.length * 6;
+        ByteBuffer buffer = ByteBuffer.allocate(4 + length);
+        buffer.putInt(length);
+        buffer.putLong(m.startedAt);
+        buffer.putInt(m.durationMs);
+        buffer.put((byte) m.gridSize);
+        buffer.put((byte) m.winner);
+        buffer.putShort((short) mode.length).put(mode);
+        buffer.putShort((short) x.length).put(x);
+        buffer.putShort((short) o.length).put(o);
+        buffer.putShort((short) m.cells.length);
+        for (int i = 0; i < m.cells.length; i++) {
+            buffer.putShort(m.cells[i]);
+            buffer.putInt(m.atMs[i]);
+        }
+        return buffer.array();
+    }
+
+    // The size is stored in one byte and each cell in a short
+    private static void checkGridSize(int gridSize) {
+        if (!GameRules.isSupportedGridSize(gridSize)) {
+            throw new IllegalArgumentException("Unsupported grid size: " + gridSize);
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Names as they are stored and indexed
+    private static String clip(String s) {
+        if (s == null) {
+            return "";
+        }
+        return s.length() > MAX_NAME_LENGTH ? s.substring(0, MAX_NAME_LENGTH) : s;
+    }
+
+    // ================= READING =================
+
+    // The read-only window holding the record that starts at offset, in a file of the
+    // given size. A window is mapped again only when the log has grown into it since.
+    // Reads use absolute gets, so each window's buffer is shared by every reader.
+    private synchronized ByteBuffer window(long offset, long size) throws IOException {
+        long number = offset / WINDOW_BYTES;
+        long base = number * WINDOW_BYTES;
+        long length = Math.min(WINDOW_BYTES + MAX_RECORD_BYTES, size - base);
+        MappedByteBuffer window = windows.get(number);
+        if (window == null || window.capacity() < length) {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, base, length);
+            windows.put(number, window);
+        }
+        return window;
+    }
+
+    private static int offsetInWindow(long offset) {
+        return (int) (offset % WINDOW_BYTES);
+    }
+
+    // Reads the record starting at pos (after its length)
+    private static Match decode(ByteBuffer view, int pos) {
+        long startedAt = view.getLong(pos);
+        int durationMs = view.getInt(pos + 8);
+        int gridSize = view.get(pos + 12) & 0xFF;
+        char winner = (char) (view.get(pos + 13) & 0xFF);
+        pos += 14;
+        String mode = string(view, pos);
+        pos += 2 + (view.getShort(pos) & 0xFFFF);
+        String x = string(view, pos);
+        pos += 2 + (view.getShort(pos) & 0xFFFF);
+        String o = string(view, pos);
+        pos += 2 + (view.getShort(pos) & 0xFFFF);
+        int moves = view.getShort(pos) & 0xFFFF;
+        pos += 2;
+        short[] cells = new short[moves];
+        int[] atMs = new int[moves];
+        for (int i = 0; i < moves; i++) {
+            cells[i] = view.getShort(pos);
+            atMs[i] = view.getInt(pos + 2);
+            pos += 6;
+        }
+        return new Match(startedAt, mode, x, o, gridSize, winner, durationMs, cells, atMs);
+    }
+
+    private static String string(ByteBuffer view, int pos) {
+        byte[] bytes = new byte[view.getShort(pos) & 0xFFFF];
+        view.get(pos + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Two passes over an existing log. The first checks the header and walks the record
+    // lengths with plain reads to cut off a torn record at the end - before anything is
+    // mapped, as a mapped file cannot be truncated everywhere. The second maps the file
+    // and indexes every record. Returns where the next record goes.
+    private long rebuildIndex() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            throw new IOException(file + " is not a match log");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, 0);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a match log");
+        }
+        if (header.getShort(4) != VERSION) {
+            throw new IOException("Unsupported match log version " + header.getShort(4));
+        }
+
+        ByteBuffer prefix = ByteBuffer.allocate(4);
+        long tail = HEADER_BYTES;
+        while (tail + 4 <= size) {
+            prefix.clear();
+            readFully(prefix, tail);
+            int length = prefix.getInt(0);
+            if (length <= 0 || length > MAX_RECORD_BYTES || tail + 4 + length > size) {
+                break;
+            }
+            tail += 4 + length;
+        }
+        if (tail < size) {
+            System.err.println("Match log " + file + ": dropping " + (size - tail) + " bytes of an unfinished record");
+            channel.truncate(tail);
+        }
+
+        int games = 0;
+        synchronized (index) {
+            long pos = HEADER_BYTES;
+            while (pos < tail) {
+                ByteBuffer window = window(pos, tail);
+                int at = offsetInWindow(pos);
+                addToIndex(decode(window, at + 4), pos);
+                pos += 4 + window.getInt(at);
+                games++;
+            }
+        }
+        System.out.println("Match log " + file + ": " + games + " games");
+        return tail;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException(file + " ended early");
+            }
+        }
+    }
+
+    // Caller holds the index lock
+    private void addToIndex(Match match, long offset) {
+        index.computeIfAbsent(match.playerX, k -> new Offsets()).add(offset);
+        if (!match.playerO.equals(match.playerX)) {
+            index.computeIfAbsent(match.playerO, k -> new Offsets()).add(offset);
+        }
+    }
+}
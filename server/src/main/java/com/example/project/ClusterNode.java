@@ -0,0 +1,595 @@
+package com.example.project;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+// Several GameServer processes acting as one, with no outside coordination service.
+// Every node gets the same peer list, the same secret and its own id:
+//   -Dtictactoe.cluster.peers=1@localhost:6000,2@localhost:6001  -Dtictactoe.node.id=2
+//   -Dtictactoe.cluster.secret=...
+// Matchmaking: the lowest-id node that is up coordinates. The others forward their
+// waiting players to it as tickets, and forward them again if the coordinator changes.
+// Room affinity: a room lives on the node of its X player. A player matched onto a room
+// on another node is sent SESSION:token and REDIRECT:host:port, and claims the seat held
+// there for them with RESUME:token. Room ids and session tokens carry the owning node, so
+// a RESUME or SPECTATE that reaches the wrong node is redirected the same way.
+// Links are one-way: each node dials every peer, sends PEER:id,timestamp,mac, and from
+// then on only writes on that socket. Peers dial the game port, so the greeting is
+// signed with the shared secret (HMAC-SHA256), and a link that sends more lines than a
+// node plausibly would is closed. All cluster state is owned by one thread, like the
+// matchmaker's.
+// Without a peer list the node is standalone and requests go straight to the matchmaker.
+public class ClusterNode {
+
+    // Room ids are nodeId * ROOM_ID_STRIDE + a per-node counter
+    private static final int ROOM_ID_STRIDE = 1_000_000;
+    private static final int MAX_NODE_ID = 2_000;
+    private static final long RECONNECT_MS = 1_000;
+    // Inside the receiving handler's idle timeout, so a quiet link is not evicted
+    private static final long BEAT_INTERVAL_MS = 5_000;
+    // How far a PEER greeting's timestamp may be from our clock
+    private static final long HELLO_WINDOW_MS = 30_000;
+    // Lines a link may send: a burst, then a steady rate. Over that the link is closed.
+    private static final double LINK_LINE_BURST = 1_000;
+    private static final double LINK_LINES_PER_SECOND = 200;
+
+    private static class Peer {
+        final int id;
+        final String host;
+        final int port;
+        // The link thread's socket, so stop() can wake it
+        volatile Socket socket;
+        // Cluster thread only
+        PrintWriter out;
+        boolean up = false;
+
+        Peer(int id, String host, int port) {
+            this.id = id;
+            this.host = host;
+            this.port = port;
+        }
+
+        String address() {
+            return host + ":" + port;
+        }
+    }
+
+    // A player on this node waiting for a match, known to the coordinator by ticket
+    private static class Waiting {
+        final long ticket;
+        final GameServer.ClientHandler player;
+        final int gridSize;
+        final double rating;
+        // Matched onto another node's room, waiting for that node to hold the seat
+        boolean placed = false;
+
+        Waiting(long ticket, GameServer.ClientHandler player, int gridSize, double rating) {
+            this.ticket = ticket;
+            this.player = player;
+            this.gridSize = gridSize;
+            this.rating = rating;
+        }
+    }
+
+    // A player waiting on another node, as this node's matchmaker sees them
+    private static class RemotePlayer implements MatchmakingService.Player {
+        final int node;
+        final long ticket;
+        volatile boolean gone = false;
+
+        RemotePlayer(int node, long ticket) {
+            this.node = node;
+            this.ticket = ticket;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return !gone;
+        }
+    }
+
+    private final int nodeId;
+    private final Map<Integer, Peer> peers;
+    private final byte[] secret;
+    // Newest greeting timestamp accepted from each peer, so a captured one cannot be
+    // replayed. Guarded by itself; greetings arrive on the links' reader threads.
+    private final Map<Integer, Long> lastHello = new HashMap<>();
+    private final MatchmakingService matchmaker;
+    private final ScheduledExecutorService executor;
+    private final List<Thread> links = new ArrayList<>();
+    private volatile boolean running = true;
+
+    // Cluster thread only
+    private int coordinator;
+    private long nextTicket = 0;
+    private final Map<Long, Waiting> waiting = new HashMap<>();
+    private final Map<GameServer.ClientHandler, Waiting> waitingBy = new HashMap<>();
+    private final Map<String, RemotePlayer> remote = new HashMap<>();
+
+    ClusterNode(int nodeId, Map<Integer, Peer> peers, byte[] secret, MatchmakingService matchmaker) {
+        this.nodeId = nodeId;
+        this.peers = peers;
+        this.secret = secret;
+        this.matchmaker = matchmaker;
+        this.coordinator = nodeId;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cluster");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Standalone unless -Dtictactoe.cluster.peers is set
+    public static ClusterNode fromSystemProperties(MatchmakingService matchmaker) {
+        String spec = System.getProperty("tictactoe.cluster.peers", "").trim();
+        if (spec.isEmpty()) {
+            return new ClusterNode(0, Collections.emptyMap(), new byte[0], matchmaker);
+        }
+
+        int nodeId = Integer.getInteger("tictactoe.node.id", 0);
+        Map<Integer, Peer> peers = new TreeMap<>();
+        boolean listed = false;
+        for (String entry : spec.split(",")) {
+            entry = entry.trim();
+            int at = entry.indexOf('@');
+            int colon = entry.lastIndexOf(':');
+            if (at <= 0 || colon <= at + 1) {
+                throw new IllegalArgumentException("Bad peer '" + entry + "', expected id@host:port");
+            }
+            int id = Integer.parseInt(entry.substring(0, at));
+            if (id < 1 || id >= MAX_NODE_ID) {
+                throw new IllegalArgumentException("Node ids run from 1 to " + (MAX_NODE_ID - 1) + ": " + entry);
+            }
+            if (id == nodeId) {
+                listed = true;
+            } else {
+                peers.put(id, new Peer(id, entry.substring(at + 1, colon), Integer.parseInt(entry.substring(colon + 1))));
+            }
+        }
+        if (!listed) {
+            throw new IllegalArgumentException("tictactoe.node.id=" + nodeId + " is not in tictactoe.cluster.peers");
+        }
+        String secret = System.getProperty("tictactoe.cluster.secret", "");
+        if (secret.isEmpty()) {
+            throw new IllegalArgumentException("A cluster needs -Dtictactoe.cluster.secret, the same on every node");
+        }
+        return new ClusterNode(nodeId, peers, secret.getBytes(StandardCharsets.UTF_8), matchmaker);
+    }
+
+    public boolean isClustered() {
+        return !peers.isEmpty();
+    }
+
+    public void start() {
+        if (!isClustered()) {
+            return;
+        }
+        ServerLog.info("Cluster node {} with peers {}", nodeId, peers.keySet());
+        for (Peer peer : peers.values()) {
+            Thread link = new Thread(() -> maintainLink(peer), "cluster-link-" + peer.id);
+            link.setDaemon(true);
+            links.add(link);
+            link.start();
+        }
+        executor.scheduleWithFixedDelay(this::beat, BEAT_INTERVAL_MS, BEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        running = false;
+        for (Thread link : links) {
+            link.interrupt();
+        }
+        for (Peer peer : peers.values()) {
+            Socket socket = peer.socket;
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {}
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    // ================= ROUTING =================
+
+    public int roomId(int localCounter) {
+        return isClustered() ? nodeId * ROOM_ID_STRIDE + localCounter : localCounter;
+    }
+
+    // The per-node counter a room id was made from
+    public int localCounterOf(int roomId) {
+        return isClustered() ? roomId % ROOM_ID_STRIDE : roomId;
+    }
+
+    public String tagToken(String token) {
+        return isClustered() ? nodeId + "." + token : token;
+    }
+
+    // host:port of the node that owns the room, or null if that is this node or nobody we know
+    public String addressOfRoom(int roomId) {
+        return addressOf(roomId / ROOM_ID_STRIDE);
+    }
+
+    public String addressOfToken(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            return addressOf(Integer.parseInt(token.substring(0, dot)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String addressOf(int node) {
+        Peer peer = peers.get(node);
+        return peer != null ? peer.address() : null;
+    }
+
+    // ================= REQUESTS FROM OTHER THREADS =================
+
+    public void enqueue(GameServer.ClientHandler player, int gridSize, double rating) {
+        if (!isClustered()) {
+            matchmaker.enqueue(player, gridSize, rating);
+            return;
+        }
+        submit(() -> addWaiting(player, gridSize, rating));
+    }
+
+    public void cancel(GameServer.ClientHandler player) {
+        if (!isClustered()) {
+            matchmaker.cancel(player);
+            return;
+        }
+        submit(() -> removeWaiting(player));
+    }
+
+    // The matchmaker's listener
+    public void onMatch(MatchmakingService.Player playerX, MatchmakingService.Player playerO, int gridSize) {
+        if (!isClustered()) {
+            GameServer.openRoom(gridSize, (GameServer.ClientHandler) playerX, (GameServer.ClientHandler) playerO);
+            return;
+        }
+        submit(() -> place(playerX, playerO, gridSize));
+    }
+
+    // PEER:id,timestamp,mac, the first line of a link another node opened. Returns the
+    // peer's id, or -1 if it is not one of ours or the greeting is not signed by it.
+    public int acceptPeer(String hello) {
+        String[] parts = hello.substring(5).split(",");
+        try {
+            if (parts.length == 3) {
+                int id = Integer.parseInt(parts[0].trim());
+                long timestamp = Long.parseLong(parts[1].trim());
+                boolean signed = MessageDigest.isEqual(
+                        sign(id, timestamp).getBytes(StandardCharsets.UTF_8), parts[2].trim().getBytes(StandardCharsets.UTF_8));
+                if (peers.containsKey(id) && signed
+                        && Math.abs(System.currentTimeMillis() - timestamp) <= HELLO_WINDOW_MS
+                        && fresh(id, timestamp)) {
+                    ServerLog.info("Node {} linked to us", id);
+                    return id;
+                }
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through
+        }
+        ServerLog.warn("Refusing cluster link '{}'", parts.length > 0 ? parts[0] : hello);
+        return -1;
+    }
+
+    private boolean fresh(int id, long timestamp) {
+        synchronized (lastHello) {
+            Long last = lastHello.get(id);
+            if (last != null && timestamp <= last) {
+                return false;
+            }
+            lastHello.put(id, timestamp);
+            return true;
+        }
+    }
+
+    // The line budget for one inbound link; see LINK_LINE_BURST
+    public static TokenBucket linkBudget(long nowNanos) {
+        return new TokenBucket(LINK_LINE_BURST, LINK_LINES_PER_SECOND, nowNanos);
+    }
+
+    // One line from a peer's link, on that link's reader thread
+    public void receive(int from, String line) {
+        submit(() -> handle(from, line));
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down
+        }
+    }
+
+    // ================= LINKS =================
+
+    // Dials the peer, and again whenever the link drops. The peer never writes on the
+    // link after its greeting and heartbeats, so reading to the end is how we notice it
+    // go away.
+    private void maintainLink(Peer peer) {
+        byte[] sink = new byte[512];
+        while (running) {
+            try (Socket socket = new Socket(peer.host, peer.port)) {
+                peer.socket = socket;
+                if (!running) {
+                    return;
+                }
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                long timestamp = System.currentTimeMillis();
+                out.println("PEER:" + nodeId + "," + timestamp + "," + sign(nodeId, timestamp));
+                out.flush();
+                submit(() -> linkChanged(peer, out));
+
+                InputStream in = socket.getInputStream();
+                while (in.read(sink) != -1) {
+                    // discard
+                }
+            } catch (IOException ignored) {
+                // Peer not up yet, or gone
+            }
+            submit(() -> {
+                if (peer.up) {
+                    linkChanged(peer, null);
+                }
+            });
+
+            try {
+                Thread.sleep(RECONNECT_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Hex HMAC-SHA256 of the greeting's fields under the cluster secret
+    private String sign(int id, long timestamp) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] digest = mac.doFinal((id + "," + timestamp).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    // ================= CLUSTER THREAD =================
+
+    private void beat() {
+        for (Peer peer : peers.values()) {
+            if (peer.up) {
+                sendTo(peer.id, "BEAT");
+            }
+        }
+    }
+
+    private boolean sendTo(int node, String line) {
+        Peer peer = peers.get(node);
+        if (peer == null || !peer.up) {
+            ServerLog.warn("Node {} is down, dropped {}", node, line);
+            return false;
+        }
+        peer.out.println(line);
+        peer.out.flush();
+        if (peer.out.checkError()) {
+            linkChanged(peer, null);
+            return false;
+        }
+        return true;
+    }
+
+    // out is the new link's writer, or null when it went down
+    private void linkChanged(Peer peer, PrintWriter out) {
+        peer.out = out;
+        peer.up = out != null;
+        ServerLog.info("Link to node {} is {}", peer.id, peer.up ? "up" : "down");
+
+        if (!peer.up) {
+            // Players waiting on that node are gone with it
+            for (Iterator<RemotePlayer> it = remote.values().iterator(); it.hasNext(); ) {
+                RemotePlayer player = it.next();
+                if (player.node == peer.id) {
+                    forget(player);
+                    it.remove();
+                }
+            }
+        }
+
+        int next = nodeId;
+        for (Peer p : peers.values()) {
+            if (p.up && p.id < next) {
+                next = p.id;
+            }
+        }
+        if (next != coordinator) {
+            changeCoordinator(next);
+        }
+    }
+
+    private void changeCoordinator(int next) {
+        int previous = coordinator;
+        coordinator = next;
+        ServerLog.info("Node {} now coordinates matchmaking", next);
+
+        if (previous == nodeId) {
+            // Their own nodes send them to the new coordinator
+            for (RemotePlayer player : remote.values()) {
+                forget(player);
+            }
+            remote.clear();
+        }
+        for (Waiting w : waiting.values()) {
+            if (w.placed) {
+                continue;
+            }
+            if (previous == nodeId) {
+                matchmaker.cancel(w.player);
+            }
+            forward(w);
+        }
+    }
+
+    private void forward(Waiting w) {
+        if (coordinator == nodeId || !sendTo(coordinator, "ENQUEUE:" + w.ticket + "," + w.gridSize + "," + w.rating)) {
+            matchmaker.enqueue(w.player, w.gridSize, w.rating);
+        }
+    }
+
+    private void forget(RemotePlayer player) {
+        player.gone = true;
+        matchmaker.cancel(player);
+    }
+
+    private void addWaiting(GameServer.ClientHandler player, int gridSize, double rating) {
+        removeWaiting(player);
+        Waiting w = new Waiting(++nextTicket, player, gridSize, rating);
+        waiting.put(w.ticket, w);
+        waitingBy.put(player, w);
+        forward(w);
+    }
+
+    private void removeWaiting(GameServer.ClientHandler player) {
+        Waiting w = waitingBy.remove(player);
+        if (w == null) {
+            return;
+        }
+        waiting.remove(w.ticket);
+        matchmaker.cancel(player);
+        if (coordinator != nodeId && !w.placed) {
+            sendTo(coordinator, "CANCEL:" + w.ticket);
+        }
+    }
+
+    private Waiting take(long ticket) {
+        Waiting w = waiting.remove(ticket);
+        if (w != null) {
+            waitingBy.remove(w.player);
+        }
+        return w;
+    }
+
+    private void handle(int from, String line) {
+        try {
+            if (line.startsWith("ENQUEUE:")) {
+                String[] p = line.substring(8).split(",");
+                RemotePlayer player = remote.computeIfAbsent(from + ":" + p[0],
+                        key -> new RemotePlayer(from, Long.parseLong(p[0])));
+                matchmaker.enqueue(player, Integer.parseInt(p[1]), Double.parseDouble(p[2]));
+            } else if (line.startsWith("CANCEL:")) {
+                RemotePlayer player = remote.remove(from + ":" + line.substring(7));
+                if (player != null) {
+                    forget(player);
+                }
+            } else if (line.startsWith("OPEN:")) {
+                String[] p = line.substring(5).split(",");
+                open(Integer.parseInt(p[0]), Long.parseLong(p[1]), Integer.parseInt(p[2]), Long.parseLong(p[3]));
+            } else if (line.startsWith("SEAT:")) {
+                String[] p = line.substring(5).split(",", 2);
+                Waiting w = take(Long.parseLong(p[0]));
+                if (w != null && w.player.isConnected()) {
+                    w.player.redirect(p[1], addressOf(from));
+                }
+            } else if (line.startsWith("REQUEUE:")) {
+                Waiting w = take(Long.parseLong(line.substring(8)));
+                if (w != null && w.player.isConnected()) {
+                    addWaiting(w.player, w.gridSize, w.rating);
+                }
+            }
+            // BEAT only keeps the link from looking idle
+        } catch (RuntimeException e) {
+            ServerLog.warn("Bad cluster message from node {}: {}", from, line);
+        }
+    }
+
+    // A pair from our matchmaker. The room goes on X's node.
+    private void place(MatchmakingService.Player playerX, MatchmakingService.Player playerO, int gridSize) {
+        int xNode = nodeOf(playerX);
+        int oNode = nodeOf(playerO);
+        long xTicket = ticketOf(playerX);
+        long oTicket = ticketOf(playerO);
+        if (xTicket < 0 || oTicket < 0) {
+            // Left between the match and now; the other one waits again
+            requeue(xNode, xTicket);
+            requeue(oNode, oTicket);
+            return;
+        }
+
+        if (xNode == nodeId) {
+            open(gridSize, xTicket, oNode, oTicket);
+            return;
+        }
+        if (oNode == nodeId) {
+            waiting.get(oTicket).placed = true;
+        }
+        if (!sendTo(xNode, "OPEN:" + gridSize + "," + xTicket + "," + oNode + "," + oTicket)) {
+            requeue(oNode, oTicket);
+        }
+    }
+
+    private int nodeOf(MatchmakingService.Player player) {
+        return player instanceof RemotePlayer ? ((RemotePlayer) player).node : nodeId;
+    }
+
+    // -1 if the player is no longer waiting
+    private long ticketOf(MatchmakingService.Player player) {
+        if (player instanceof RemotePlayer) {
+            RemotePlayer r = (RemotePlayer) player;
+            return remote.remove(r.node + ":" + r.ticket) != null ? r.ticket : -1;
+        }
+        Waiting w = waitingBy.get(player);
+        return w != null ? w.ticket : -1;
+    }
+
+    private void requeue(int node, long ticket) {
+        if (ticket < 0) {
+            return;
+        }
+        if (node != nodeId) {
+            sendTo(node, "REQUEUE:" + ticket);
+            return;
+        }
+        Waiting w = take(ticket);
+        if (w != null && w.player.isConnected()) {
+            addWaiting(w.player, w.gridSize, w.rating);
+        }
+    }
+
+    // We own the new room: X is ours, O is ours too or waits on oNode for its seat
+    private void open(int gridSize, long xTicket, int oNode, long oTicket) {
+        Waiting x = take(xTicket);
+        Waiting o = oNode == nodeId ? take(oTicket) : null;
+        boolean xHere = x != null && x.player.isConnected();
+        boolean oHere = oNode != nodeId || (o != null && o.player.isConnected());
+        if (!xHere || !oHere) {
+            if (xHere) addWaiting(x.player, x.gridSize, x.rating);
+            if (o != null && o.player.isConnected()) addWaiting(o.player, o.gridSize, o.rating);
+            if (oNode != nodeId) sendTo(oNode, "REQUEUE:" + oTicket);
+            return;
+        }
+
+        String[] tokens = GameServer.openRoom(gridSize, x.player, o != null ? o.player : null);
+        if (oNode != nodeId) {
+            sendTo(oNode, "SEAT:" + oTicket + "," + tokens[1]);
+        }
+    }
+}
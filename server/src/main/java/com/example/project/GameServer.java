@@ -0,0 +1,1651 @@
+package com.example.project;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.security.SecureRandom;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameServer {
+
+    // -Dtictactoe.port, so several cluster nodes can share one host
+    private static final int PORT = Integer.getInteger("tictactoe.port", 6000);
+    private static final List<GameRoom> gameRooms = Collections.synchronizedList(new ArrayList<>());
+    private static int roomCounter = 0;
+    private static ExecutorService threadPool = Executors.newCachedThreadPool();
+    private static ServerSocket serverSocket;
+    private static volatile boolean running = true;
+    private static final AtomicBoolean stopping = new AtomicBoolean(false);
+    // Completed once the port is bound, so an embedding launcher knows when it can connect
+    private static final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private static final RatingEngine ratingEngine = new RatingEngine();
+    // The name of a client that never sent NAME:; such players are not rated
+    private static final String DEFAULT_PLAYER_NAME = "Player";
+    private static final MatchmakingService matchmaker = new MatchmakingService(GameServer::startMatch);
+    // Standalone unless peers are configured; see ClusterNode
+    private static final ClusterNode cluster = ClusterNode.fromSystemProperties(matchmaker);
+    // Every game clock deadline and connection heartbeat lives in this one wheel
+    private static final TimingWheel timingWheel = new TimingWheel("server-timer", 50, TimeUnit.MILLISECONDS, 512);
+    // Every room runs on one of these threads; see GameRoom
+    private static final RoomShards roomShards = new RoomShards("room-shard", RoomShards.defaultCount());
+    private static final long HEARTBEAT_INTERVAL_MS = 5_000;
+    private static final long IDLE_TIMEOUT_MS = 15_000;
+    // How long a dropped player's seat is held for them to resume
+    private static final long RESUME_GRACE_MS = 30_000;
+    // Outbound frames a connection may have queued before it counts as too slow
+    private static final int PLAYER_OUTBOX_LIMIT = 4096;
+    private static final int SPECTATOR_OUTBOX_LIMIT = 256;
+    private static final long CLOSE_FLUSH_TIMEOUT_MS = 2_000;
+    // Longest line a client may send; chat is capped well below this by the client
+    private static final int MAX_LINE_BYTES = 4096;
+    // Recent chat lines each room keeps for HISTORY requests
+    private static final int CHAT_HISTORY_LIMIT = 50;
+    // How long a metrics scrape waits for a room's shard to answer
+    private static final long SHARD_QUERY_TIMEOUT_MS = 1_000;
+    // Draining: how long to let running games finish before the rest are checkpointed,
+    // and where the checkpoint goes (-Dtictactoe.drain.waitMs, -Dtictactoe.checkpoint.file)
+    private static final long DRAIN_WAIT_MS = Long.getLong("tictactoe.drain.waitMs", 0);
+    private static final Path CHECKPOINT_FILE = Paths.get(
+            System.getProperty("tictactoe.checkpoint.file", "tictactoe-checkpoint-" + PORT + ".bin"));
+    // Every finished game, for MATCHES queries (-Dtictactoe.matches.file). Opened once the
+    // port is bound; null until then, or if it cannot be opened.
+    private static final Path MATCH_LOG_FILE = Paths.get(
+            System.getProperty("tictactoe.matches.file", "tictactoe-matches-" + PORT + ".log"));
+    private static volatile MatchLog matchLog;
+    // Most games a MATCHES query returns
+    private static final int MATCHES_LIMIT = 50;
+
+    private static final ServerMetrics metrics = new ServerMetrics(
+            matchmaker.getWaitHistogram(), matchmaker::getWaitingCount, GameServer::roomsByGridSize,
+            GameServer::latencyByRoom);
+
+    // Resume token -> the seat it gives back
+    private static final Map<String, Seat> sessions = new ConcurrentHashMap<>();
+    private static final SecureRandom tokenRandom = new SecureRandom();
+
+    static class Seat {
+        final GameRoom room;
+        final char symbol;
+
+        Seat(GameRoom room, char symbol) {
+            this.room = room;
+            this.symbol = symbol;
+        }
+    }
+
+    static String newSessionToken() {
+        byte[] bytes = new byte[16];
+        tokenRandom.nextBytes(bytes);
+        return cluster.tagToken(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+    }
+
+    public static void main(String[] args) {
+        System.out.println("========================================");
+        System.out.println("      Tic-Tac-Toe Game Server");
+        System.out.println("           Port: " + PORT);
+        System.out.println("========================================");
+        System.out.println("Server starting...");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ServerLog.info("Shutting down server...");
+            stopServer();
+        }));
+
+        try {
+            restoreRooms();
+            serverSocket = new ServerSocket(PORT);
+            ServerLog.info("Server started successfully on port {}", PORT);
+            ServerLog.info("Ready to accept connections {} ms after launch", millisSinceLaunch());
+            ServerLog.info("Rooms run on {} shard threads", roomShards.size());
+            ready.complete(null);
+
+            // Nothing below is needed to accept the first player, so it does not hold up the accept loop
+            Thread init = new Thread(GameServer::finishStartup, "server-init");
+            init.setDaemon(true);
+            init.start();
+
+            while (running) {
+                try {
+                    Socket clientSocket = serverSocket.accept();
+                    String clientAddress = clientSocket.getInetAddress().getHostAddress();
+                    ServerLog.info("New client connected from: {}", clientAddress);
+
+                    metrics.connectionOpened();
+                    ClientHandler handler = new ClientHandler(Transport.of(clientSocket));
+                    threadPool.execute(handler);
+
+                } catch (SocketException e) {
+                    if (running) {
+                        ServerLog.warn("Socket error: {}", e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            ready.completeExceptionally(e);
+            ServerLog.error("Server error", e);
+        } finally {
+            stopServer();
+        }
+    }
+
+    public static CompletableFuture<Void> readiness() {
+        return ready;
+    }
+
+    // True when this JVM is running the server that answers on host:port
+    public static boolean servesInProcess(String host, int port) {
+        if (port != PORT || !ready.isDone() || ready.isCompletedExceptionally() || !running) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(host).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    // Connects a client in this JVM straight to the server, without a socket
+    public static Transport connectInProcess() throws IOException {
+        if (!ready.isDone() || ready.isCompletedExceptionally() || !running) {
+            throw new IOException("Embedded server is not running");
+        }
+        InMemoryTransport[] pair = InMemoryTransport.pair();
+        ServerLog.info("New client connected in-process: {}", pair[1].getRemoteId());
+        metrics.connectionOpened();
+        threadPool.execute(new ClientHandler(pair[1]));
+        return pair[0];
+    }
+
+    // JMX/HTTP metrics and the local address lookup (which can wait on DNS)
+    private static void finishStartup() {
+        matchLog = openMatchLog(MATCH_LOG_FILE);
+        cluster.start();
+        metrics.start(timingWheel, Integer.getInteger("tictactoe.metrics.port", ServerMetrics.DEFAULT_HTTP_PORT));
+        try {
+            ServerLog.info("Local IP: {}", InetAddress.getLocalHost().getHostAddress());
+        } catch (IOException e) {
+            ServerLog.warn("Could not look up local IP: {}", e.getMessage());
+        }
+        ServerLog.info("Waiting for players to connect...");
+
+        // Used when building the class-data-sharing archive: run one connection
+        // through the server so its classes are recorded, then exit
+        if (Boolean.getBoolean("tictactoe.trainingRun")) {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), PORT)) {
+                PrintWriter w = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+                BufferedReader r = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                w.println("GRIDSIZE:3");
+                w.println("PING");
+                while (!"PONG".equals(r.readLine())) {
+                    // skip the greeting
+                }
+                w.println("LEAVE");
+            } catch (IOException e) {
+                ServerLog.warn("Training run failed: {}", e.getMessage());
+            }
+            System.exit(0);
+        }
+    }
+
+    private static long millisSinceLaunch() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> System.currentTimeMillis() - start.toEpochMilli())
+                .orElse(-1L);
+    }
+
+    public static void stopServer() {
+        // Reached from both the shutdown hook and the end of main
+        if (!stopping.compareAndSet(false, true)) {
+            return;
+        }
+        running = false;
+        try {
+            if (serverSocket != null && !serverSocket.isClosed()) {
+                serverSocket.close();
+            }
+
+            // Drain: no new rooms, a chance for running games to end, then checkpoint the rest
+            matchmaker.shutdown();
+            awaitGamesFinished();
+            Set<Integer> saved = checkpointRooms();
+
+            synchronized (gameRooms) {
+                for (GameRoom room : gameRooms) {
+                    // Players of a checkpointed room were told their game will continue
+                    room.close(saved.contains(room.id) ? null : "MESSAGE:Server is shutting down");
+                }
+                gameRooms.clear();
+            }
+            // Let the rooms finish queueing their last frames before the writers stop
+            roomShards.shutdown(5, TimeUnit.SECONDS);
+            // Our links closing is what tells the other nodes we are gone
+            cluster.stop();
+
+            threadPool.shutdown();
+            if (!threadPool.awaitTermination(5, TimeUnit.SECONDS)) {
+                threadPool.shutdownNow();
+            }
+
+            metrics.stop();
+            timingWheel.stop();
+            ServerLog.info("{}", matchmaker.getWaitHistogram());
+            MatchLog log = matchLog;
+            if (log != null) {
+                log.close();
+            }
+            ratingEngine.shutdown();
+
+            ServerLog.info("Server stopped gracefully");
+        } catch (Exception e) {
+            ServerLog.warn("Error during server shutdown: {}", e.getMessage());
+        }
+        ServerLog.shutdown();
+    }
+
+    private static MatchLog openMatchLog(Path file) {
+        try {
+            return MatchLog.open(file);
+        } catch (IOException e) {
+            ServerLog.warn("Match history disabled, cannot open {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    // ================= DRAIN AND RESTORE =================
+
+    private static List<GameRoom> roomList() {
+        synchronized (gameRooms) {
+            return new ArrayList<>(gameRooms);
+        }
+    }
+
+    private static void awaitGamesFinished() throws InterruptedException {
+        if (DRAIN_WAIT_MS <= 0) {
+            return;
+        }
+        List<GameRoom> rooms = roomList();
+        for (GameRoom room : rooms) {
+            room.announce("MESSAGE:Server is restarting after this game");
+        }
+        long deadline = System.currentTimeMillis() + DRAIN_WAIT_MS;
+        int active = activeGames(rooms);
+        while (active > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(200);
+            active = activeGames(rooms);
+        }
+        ServerLog.info("Drain: {} games still running after {} ms", active, DRAIN_WAIT_MS);
+    }
+
+    private static int activeGames(List<GameRoom> rooms) {
+        int active = 0;
+        for (GameRoom room : rooms) {
+            if (Boolean.TRUE.equals(room.isGameActive().exceptionally(e -> false).join())) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    // Freezes every room that still has both players and writes them to CHECKPOINT_FILE.
+    // Returns the ids of the rooms saved.
+    private static Set<Integer> checkpointRooms() {
+        List<CompletableFuture<RoomCheckpoint>> pending = new ArrayList<>();
+        for (GameRoom room : roomList()) {
+            pending.add(room.checkpoint());
+        }
+        List<RoomCheckpoint> rooms = new ArrayList<>();
+        for (CompletableFuture<RoomCheckpoint> future : pending) {
+            RoomCheckpoint checkpoint = future.exceptionally(e -> null).join();
+            if (checkpoint != null) {
+                rooms.add(checkpoint);
+            }
+        }
+
+        Set<Integer> saved = new HashSet<>();
+        if (rooms.isEmpty()) {
+            return saved;
+        }
+        try {
+            RoomCheckpoint.save(CHECKPOINT_FILE, rooms);
+            for (RoomCheckpoint checkpoint : rooms) {
+                saved.add(checkpoint.roomId);
+            }
+            ServerLog.info("Checkpointed {} rooms to {}", rooms.size(), CHECKPOINT_FILE);
+        } catch (IOException e) {
+            ServerLog.error("Could not write checkpoint " + CHECKPOINT_FILE, e);
+        }
+        return saved;
+    }
+
+    // Rooms from the last drain come back with their seats held for the players' tokens.
+    // Clients reconnect on their own with RESUME, and the clocks restart once both are back.
+    private static void restoreRooms() {
+        List<RoomCheckpoint> rooms;
+        try {
+            rooms = RoomCheckpoint.load(CHECKPOINT_FILE);
+        } catch (IOException e) {
+            ServerLog.warn("Ignoring checkpoint {}: {}", CHECKPOINT_FILE, e.getMessage());
+            return;
+        }
+        if (rooms.isEmpty()) {
+            return;
+        }
+        int restored = 0;
+        for (RoomCheckpoint checkpoint : rooms) {
+            if (checkpoint.tokenX == null || checkpoint.tokenO == null) {
+                continue;
+            }
+            restored++;
+            GameRoom room = new GameRoom(checkpoint.roomId, checkpoint.gridSize);
+            synchronized (gameRooms) {
+                gameRooms.add(room);
+                roomCounter = Math.max(roomCounter, cluster.localCounterOf(checkpoint.roomId));
+            }
+            room.restore(checkpoint);
+        }
+        // Restored once only; a crash from here on must not bring back stale games
+        try {
+            Files.delete(CHECKPOINT_FILE);
+        } catch (IOException e) {
+            ServerLog.warn("Could not remove checkpoint {}: {}", CHECKPOINT_FILE, e.getMessage());
+        }
+        ServerLog.info("Restored {} rooms from {}", restored, CHECKPOINT_FILE);
+    }
+
+    // Called by the matchmaker once it has paired two waiting players. In a cluster either
+    // of them may be waiting on another node, so the cluster decides where the room goes.
+    private static void startMatch(MatchmakingService.Player playerX, MatchmakingService.Player playerO, int gridSize) {
+        cluster.onMatch(playerX, playerO, gridSize);
+    }
+
+    // Opens a room on this node and seats the players. A null player is waiting on another
+    // node: their seat is held for them, and the token at their index in the returned
+    // {x, o} pair is what they claim it with.
+    static String[] openRoom(int gridSize, ClientHandler playerX, ClientHandler playerO) {
+        GameRoom room;
+        synchronized (gameRooms) {
+            room = new GameRoom(cluster.roomId(++roomCounter), gridSize);
+            gameRooms.add(room);
+        }
+        String[] tokens = new String[2];
+        if (playerX != null) playerX.joinRoom(room, 'X');
+        else tokens[0] = room.reserveSeat('X');
+        if (playerO != null) playerO.joinRoom(room, 'O');
+        else tokens[1] = room.reserveSeat('O');
+        room.startGame();
+        return tokens;
+    }
+
+    // Marks the end of a connection's outbox
+    private static final byte[] CLOSE_FRAME = new byte[0];
+
+    static Map<Integer, Integer> roomsByGridSize() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        synchronized (gameRooms) {
+            for (GameRoom room : gameRooms) {
+                counts.merge(room.gridSize, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    // Room id -> {xRttMs, xJitterMs, oRttMs, oJitterMs} as last reported by the players.
+    // Every room is asked on its own shard first, then the answers are collected, so the
+    // shards work on the query in parallel. A room too busy to answer in time is left out.
+    static Map<Integer, int[]> latencyByRoom() {
+        List<GameRoom> rooms;
+        synchronized (gameRooms) {
+            rooms = new ArrayList<>(gameRooms);
+        }
+        Map<Integer, CompletableFuture<int[]>> pending = new HashMap<>();
+        for (GameRoom room : rooms) {
+            pending.put(room.id, room.latency().completeOnTimeout(null, SHARD_QUERY_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        }
+        Map<Integer, int[]> latency = new HashMap<>();
+        for (Map.Entry<Integer, CompletableFuture<int[]>> entry : pending.entrySet()) {
+            int[] value = entry.getValue().exceptionally(e -> null).join();
+            if (value != null) {
+                latency.put(entry.getKey(), value);
+            }
+        }
+        return latency;
+    }
+
+    static GameRoom findRoom(int roomId) {
+        synchronized (gameRooms) {
+            for (GameRoom room : gameRooms) {
+                if (room.id == roomId) {
+                    return room;
+                }
+            }
+        }
+        return null;
+    }
+
+    static class ClientHandler implements Runnable, MatchmakingService.Player {
+        private final Transport transport;
+        private OutputStream out;
+        private LineReader in;
+        private volatile GameRoom currentRoom;
+        private volatile char playerSymbol;
+        private volatile boolean running = true;
+        private String playerName = DEFAULT_PLAYER_NAME;
+        private int gridSize = 3;
+        private final String clientId;
+        private volatile long lastActivityNanos = System.nanoTime();
+        private TimingWheel.Timeout heartbeat;
+        private volatile boolean leaving = false;
+        // Round trip and jitter from the client's last LATENCY report, -1 until it sends one
+        private volatile int rttMs = -1;
+        private volatile int jitterMs = -1;
+        private volatile boolean spectator = false;
+
+        // Outbound frames are queued and written by one pool task at a time, so whoever
+        // sends (usually a room broadcasting) never blocks on this peer's socket.
+        private final Queue<byte[]> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger outboxSize = new AtomicInteger();
+        private final AtomicBoolean writerActive = new AtomicBoolean(false);
+        // Only the reader thread touches these
+        private final RateLimiter limiter = new RateLimiter(System.nanoTime());
+        private boolean warnedThrottled = false;
+        // disconnect() can run twice (room cleanup and the reader exiting)
+        private final AtomicBoolean counted = new AtomicBoolean(false);
+
+        public ClientHandler(Transport transport) {
+            this.transport = transport;
+            this.clientId = transport.getRemoteId();
+        }
+
+        public void run() {
+            try {
+                in = new LineReader(transport.getInputStream(), MAX_LINE_BYTES);
+                out = new BufferedOutputStream(transport.getOutputStream());
+
+                send("MESSAGE:Connected to Tic-Tac-Toe Server");
+                send("MESSAGE:Waiting for opponent...");
+                scheduleHeartbeat();
+
+                String message;
+                while (running && (message = in.readLine()) != null) {
+                    long now = System.nanoTime();
+                    lastActivityNanos = now;
+                    metrics.messageIn(message.length() + 1);
+                    if (!admit(message, now)) {
+                        continue;
+                    }
+                    GameRoom room = currentRoom;
+                    if (ServerLog.isDebugEnabled(room != null ? room.id : 0)) {
+                        ServerLog.debug("[{} @ Room {}] {}", playerSymbol, room != null ? room.id : "none", message);
+                    }
+
+                    if (message.startsWith("NAME:")) {
+                        handleName(message);
+                    } else if (message.startsWith("GRIDSIZE:")) {
+                        handleGridSize(message);
+                    } else if (message.startsWith("MOVE:")) {
+                        handleMove(message);
+                    } else if (message.startsWith("CHAT:")) {
+                        handleChat(message);
+                    } else if (message.equals("REMATCH")) {
+                        handleRematch();
+                    } else if (message.startsWith("SPECTATE:")) {
+                        handleSpectate(message);
+                    } else if (message.startsWith("RESUME:")) {
+                        handleResume(message);
+                    } else if (message.equals("MATCHES") || message.startsWith("MATCHES:")) {
+                        handleMatches(message);
+                    } else if (message.equals("HISTORY")) {
+                        GameRoom current = currentRoom;
+                        if (current != null) {
+                            current.sendChatHistory(this);
+                        }
+                    } else if (message.startsWith("PEER:")) {
+                        servePeer(message);
+                        break;
+                    } else if (message.equals("LEAVE")) {
+                        // Deliberate exit - give the seat up now instead of holding it
+                        leaving = true;
+                        break;
+                    } else if (message.startsWith("PING:")) {
+                        // Client measuring its round trip - echo its timestamp back
+                        send("PONG:" + message.substring(5));
+                    } else if (message.startsWith("LATENCY:")) {
+                        handleLatency(message);
+                    } else if (message.equals("PING")) {
+                        send("PONG");
+                    } else if (message.equals("PONG")) {
+                        // Heartbeat reply - the activity timestamp is all we need
+                    }
+                }
+            } catch (LineReader.LineTooLongException e) {
+                ServerLog.warn("Disconnecting {}: {}", clientId, e.getMessage());
+                metrics.oversizedLine();
+                leaving = true;
+            } catch (IOException e) {
+                ServerLog.info("Client {} disconnected: {}", playerSymbol, e.getMessage());
+            } catch (Exception e) {
+                ServerLog.error("Error handling client {}", playerSymbol, e);
+            } finally {
+                disconnect();
+            }
+        }
+
+        // ================= FLOOD PROTECTION =================
+
+        // False if the line is over this connection's rate limits and must be dropped.
+        // A client that keeps flooding is also stopped (running cleared), and gives up
+        // its seat as if it had left.
+        private boolean admit(String message, long now) {
+            RateLimiter.Kind kind = RateLimiter.kindOf(message);
+            RateLimiter.Verdict verdict = limiter.check(kind, now);
+            if (verdict == RateLimiter.Verdict.ALLOW) {
+                warnedThrottled = false;
+                return true;
+            }
+
+            metrics.messageThrottled(kind);
+            if (verdict == RateLimiter.Verdict.DISCONNECT) {
+                ServerLog.warn("Disconnecting {}: flooding ({} lines dropped)", clientId, limiter.getDropped());
+                metrics.floodDisconnect();
+                leaving = true;
+                running = false;
+            } else if (!warnedThrottled) {
+                // Once per burst, so the warning cannot become a flood of its own
+                send("MESSAGE:Slow down - you are sending messages too fast");
+                warnedThrottled = true;
+            }
+            return false;
+        }
+
+        // ================= CLUSTER =================
+
+        // Another node's link rather than a player: from here on every line is for the cluster
+        private void servePeer(String hello) throws IOException {
+            int node = cluster.acceptPeer(hello);
+            if (node < 0) {
+                return;
+            }
+            leaving = true;
+            // Past the player limits, but still limited: a link that floods is closed and redialled
+            TokenBucket budget = ClusterNode.linkBudget(System.nanoTime());
+            String line;
+            while (running && (line = in.readLine()) != null) {
+                long now = System.nanoTime();
+                lastActivityNanos = now;
+                if (!budget.tryTake(now)) {
+                    ServerLog.warn("Closing the link from node {}: flooding", node);
+                    metrics.floodDisconnect();
+                    return;
+                }
+                cluster.receive(node, line);
+            }
+        }
+
+        // Our seat is held on another node: hand over the token and where to claim it
+        void redirect(String token, String address) {
+            ServerLog.info("Sending {} to {} for their room", clientId, address);
+            send("SESSION:" + token);
+            send("REDIRECT:" + address);
+        }
+
+        // ================= HEARTBEAT =================
+
+        private void scheduleHeartbeat() {
+            heartbeat = timingWheel.schedule(this::checkHeartbeat, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+
+        // Runs on the timer thread, so it never does blocking I/O itself
+        private void checkHeartbeat() {
+            if (!running) {
+                return;
+            }
+
+            long idleMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivityNanos);
+            if (idleMs >= IDLE_TIMEOUT_MS) {
+                ServerLog.info("Evicting idle client {} (no traffic for {} ms)", clientId, idleMs);
+                // Closing the socket wakes the reader thread, which then runs disconnect()
+                try {
+                    transport.close();
+                } catch (IOException ignored) {}
+                return;
+            }
+
+            if (idleMs >= HEARTBEAT_INTERVAL_MS) {
+                threadPool.execute(() -> send("PING"));
+            }
+            scheduleHeartbeat();
+        }
+
+        private void handleName(String message) {
+            String newName = message.substring(5).trim();
+            if (!newName.isEmpty()) {
+                this.playerName = newName;
+                if (!newName.equals(DEFAULT_PLAYER_NAME)) {
+                    ratingEngine.preload(newName);
+                }
+            }
+        }
+
+        private void handleGridSize(String message) {
+            try {
+                int size = Integer.parseInt(message.substring(9).trim());
+                if (!GameRules.isSupportedGridSize(size)) {
+                    send("MESSAGE:Invalid grid size");
+                    return;
+                }
+                this.gridSize = size;
+
+                if (currentRoom == null) {
+                    findMatch();
+                }
+            } catch (NumberFormatException e) {
+                send("MESSAGE:Invalid grid size");
+            }
+        }
+
+        // Hands this player to the matchmaker; joinRoom is called back once paired
+        void findMatch() {
+            send("MESSAGE:Searching for an opponent...");
+            cluster.enqueue(this, gridSize, ratingEngine.getRating(playerName));
+        }
+
+        void joinRoom(GameRoom room, char symbol) {
+            playerSymbol = symbol;
+            currentRoom = room;
+            room.addPlayer(this, symbol);
+            ServerLog.info("Player {} joined room {} ({})", symbol, room.id, clientId);
+
+            // Dropped while being paired - disconnect() may have missed the room
+            if (!running) {
+                room.removePlayer(this);
+            }
+        }
+
+        void leaveRoom() {
+            currentRoom = null;
+            spectator = false;
+        }
+
+        private void handleResume(String message) {
+            String token = message.substring(7).trim();
+            Seat seat = sessions.get(token);
+            String owner = seat == null ? cluster.addressOfToken(token) : null;
+            if (owner != null) {
+                send("REDIRECT:" + owner);
+                return;
+            }
+            if (currentRoom != null || seat == null) {
+                send("RESUME_FAILED");
+                return;
+            }
+            // Drop any search started by an earlier GRIDSIZE so it cannot seat us twice
+            cluster.cancel(this);
+            // Waits for the room's answer, so nothing this client sends next overtakes the resume
+            if (!seat.room.resumePlayer(this, seat.symbol).join()) {
+                send("RESUME_FAILED");
+                return;
+            }
+            playerSymbol = seat.symbol;
+            gridSize = seat.room.gridSize;
+            currentRoom = seat.room;
+            ServerLog.info("Player {} resumed in room {} ({})", seat.symbol, seat.room.id, clientId);
+        }
+
+        private void handleSpectate(String message) {
+            if (currentRoom != null) {
+                return;
+            }
+            try {
+                int roomId = Integer.parseInt(message.substring(9).trim());
+                GameRoom room = findRoom(roomId);
+                String owner = room == null ? cluster.addressOfRoom(roomId) : null;
+                if (owner != null) {
+                    send("REDIRECT:" + owner);
+                    return;
+                }
+                if (room == null) {
+                    send("MESSAGE:Room " + roomId + " not found");
+                    return;
+                }
+                cluster.cancel(this);
+                spectator = true;
+                playerSymbol = 'S';
+                currentRoom = room;
+                room.addSpectator(this);
+                ServerLog.info("Spectator joined room {} ({})", roomId, clientId);
+            } catch (NumberFormatException e) {
+                send("MESSAGE:Invalid room id");
+            }
+        }
+
+        private void handleMove(String message) {
+            if (spectator) return;
+            int[] move = GameRules.parseMove(message.substring(5));
+            if (move == null) {
+                send("MESSAGE:Invalid move format");
+                return;
+            }
+            int row = move[0];
+            int col = move[1];
+            int seq = move[2];
+            GameRoom room = currentRoom;
+            if (room != null) {
+                room.makeMove(row, col, seq, this);
+            }
+        }
+
+        private void handleChat(String message) {
+            String chatMsg = message.substring(5);
+            if (!chatMsg.trim().isEmpty() && currentRoom != null) {
+                currentRoom.broadcastChat(playerSymbol, playerName, chatMsg);
+            }
+        }
+
+        // LATENCY:rttMs,jitterMs - what the client measured with its own pings
+        private void handleLatency(String message) {
+            String[] parts = message.substring(8).split(",");
+            if (parts.length != 2) {
+                return;
+            }
+            try {
+                int rtt = Integer.parseInt(parts[0].trim());
+                int jitter = Integer.parseInt(parts[1].trim());
+                if (rtt < 0 || jitter < 0) {
+                    return;
+                }
+                rttMs = rtt;
+                jitterMs = jitter;
+                metrics.recordClientRtt(rtt);
+            } catch (NumberFormatException ignored) {
+                // Not worth answering - the next report will do
+            }
+        }
+
+        // MATCHES[:n] - this player's last n games (10 by default), newest first, from the match log
+        private void handleMatches(String message) {
+            int limit = 10;
+            if (message.length() > 8) {
+                try {
+                    limit = Math.max(0, Math.min(MATCHES_LIMIT, Integer.parseInt(message.substring(8).trim())));
+                } catch (NumberFormatException e) {
+                    send("MESSAGE:Invalid match count");
+                    return;
+                }
+            }
+            MatchLog log = matchLog;
+            List<MatchLog.Match> matches = log != null ? log.history(playerName, limit) : new ArrayList<>();
+            send("MATCHES:" + matches.size());
+            for (MatchLog.Match match : matches) {
+                send(describe(match));
+            }
+        }
+
+        // MATCH:startedAt,gridSize,winner,durationMs,moves,playerX,playerO - winner is X, O or D,
+        // and moves are row.col@ms separated by ';'. Commas in names become spaces.
+        private static String describe(MatchLog.Match match) {
+            StringBuilder sb = new StringBuilder("MATCH:");
+            sb.append(match.startedAt).append(',').append(match.gridSize).append(',')
+                    .append(match.winner == ' ' ? 'D' : match.winner).append(',').append(match.durationMs).append(',');
+            for (int i = 0; i < match.moveCount(); i++) {
+                if (i > 0) sb.append(';');
+                sb.append(match.row(i)).append('.').append(match.col(i)).append('@').append(match.atMs[i]);
+            }
+            sb.append(',').append(match.playerX.replace(',', ' ')).append(',').append(match.playerO.replace(',', ' '));
+            return sb.toString();
+        }
+
+        private void handleRematch() {
+            if (currentRoom != null && !spectator) {
+                currentRoom.handleRematch(this);
+            }
+        }
+
+        // ================= OUTBOUND =================
+
+        static byte[] encode(String message) {
+            return (message + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        public void send(String message) {
+            sendFrame(encode(message));
+        }
+
+        // The frame may be shared with other recipients, so it is never modified
+        public void sendFrame(byte[] frame) {
+            if (out == null || !running) {
+                return;
+            }
+
+            int limit = spectator ? SPECTATOR_OUTBOX_LIMIT : PLAYER_OUTBOX_LIMIT;
+            if (outboxSize.incrementAndGet() > limit) {
+                outboxSize.decrementAndGet();
+                ServerLog.warn("Dropping slow {} {}", spectator ? "spectator" : "client", clientId);
+                closeQuietly();
+                return;
+            }
+            outbox.add(frame);
+            scheduleWriter();
+        }
+
+        private void scheduleWriter() {
+            if (writerActive.compareAndSet(false, true)) {
+                try {
+                    threadPool.execute(this::drainOutbox);
+                } catch (RejectedExecutionException e) {
+                    writerActive.set(false);
+                }
+            }
+        }
+
+        // Writes everything queued, flushing once per batch instead of once per frame
+        private void drainOutbox() {
+            try {
+                while (true) {
+                    byte[] frame;
+                    while ((frame = outbox.poll()) != null) {
+                        outboxSize.decrementAndGet();
+                        if (frame == CLOSE_FRAME) {
+                            out.flush();
+                            closeQuietly();
+                            return;
+                        }
+                        out.write(frame);
+                        metrics.messageOut(frame.length);
+                    }
+                    out.flush();
+
+                    writerActive.set(false);
+                    // Someone may have queued a frame after our last poll
+                    if (outbox.isEmpty() || !writerActive.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                writerActive.set(false);
+                closeQuietly();
+            }
+        }
+
+        public void disconnect() {
+            running = false;
+            if (counted.compareAndSet(false, true)) {
+                metrics.connectionClosed();
+            }
+            if (heartbeat != null) {
+                heartbeat.cancel();
+            }
+
+            // Let the writer send what is already queued, then close. A peer that stops
+            // reading does not get to keep the socket open past the timeout.
+            if (out != null && !transport.isClosed()) {
+                outbox.add(CLOSE_FRAME);
+                scheduleWriter();
+                timingWheel.schedule(this::closeQuietly, CLOSE_FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } else {
+                closeQuietly();
+            }
+
+            GameRoom room = currentRoom;
+            if (room != null && spectator) {
+                room.removeSpectator(this);
+                currentRoom = null;
+            } else if (room != null) {
+                if (leaving) {
+                    room.removePlayer(this);
+                } else {
+                    room.playerDropped(this);
+                }
+                currentRoom = null;
+            } else {
+                cluster.cancel(this);
+            }
+
+            ServerLog.info("Client {} disconnected ({})", playerSymbol, clientId);
+        }
+
+        void closeQuietly() {
+            try {
+                transport.close();
+            } catch (IOException ignored) {}
+        }
+
+        public char getSymbol() { return playerSymbol; }
+        public String getPlayerName() { return playerName; }
+        public String getClientId() { return clientId; }
+        public int getRttMs() { return rttMs; }
+        public int getJitterMs() { return jitterMs; }
+        public boolean isConnected() { return running && !transport.isClosed(); }
+    }
+
+    // A room is owned by one RoomShards thread and all of its state is read and written
+    // there, so none of it is locked. The public methods are commands from other threads:
+    // they queue their work on the room's shard and return at once. Everything private
+    // runs on the shard, including the timer callbacks, which are queued there too.
+    static class GameRoom {
+        public final int id;
+        public final int gridSize;
+        private ClientHandler playerX;
+        private ClientHandler playerO;
+        private final List<ClientHandler> spectators = new ArrayList<>();
+        private char[][] board;
+        private char currentTurn = 'X';
+        private boolean gameActive = false;
+        private int scoreX = 0;
+        private int scoreO = 0;
+        private boolean xWantsRematch = false;
+        private boolean oWantsRematch = false;
+
+        // Server-authoritative clock: each side has a bank for the whole game plus a per-move limit
+        private final long moveLimitMs;
+        private final long gameBankMs;
+        private long xRemainingMs;
+        private long oRemainingMs;
+        private long gameStartNanos;
+        private long turnStartNanos;
+        private int moveNumber = 0;
+        private TimingWheel.Timeout turnTimeout;
+
+        // Resume tokens for each seat, and the pending release of a dropped player's seat
+        private String tokenX;
+        private String tokenO;
+        private TimingWheel.Timeout xGrace;
+        private TimingWheel.Timeout oGrace;
+
+        // Restored from a checkpoint and waiting for both players to come back
+        private boolean restored = false;
+
+        // Last CHAT_HISTORY_LIMIT chat frames, oldest first
+        private final ArrayDeque<byte[]> chatHistory = new ArrayDeque<>();
+
+        // The game in progress, as it will go into the match log
+        private final MatchLog.Recorder game;
+
+        public GameRoom(int id, int gridSize) {
+            this.id = id;
+            this.gridSize = gridSize;
+            this.board = new char[gridSize][gridSize];
+            this.moveLimitMs = gridSize == 3 ? 30_000 : (gridSize == 5 ? 45_000 : 60_000);
+            this.gameBankMs = gridSize == 3 ? 120_000 : (gridSize == 5 ? 300_000 : 600_000);
+            this.game = new MatchLog.Recorder(gridSize);
+            resetBoard();
+            ServerLog.info("Room {} created with grid size {} on shard {}", id, gridSize, roomShards.shardOf(id));
+        }
+
+        private void execute(Runnable command) {
+            roomShards.execute(id, command);
+        }
+
+        private void resetBoard() {
+            for (int i = 0; i < gridSize; i++) {
+                Arrays.fill(board[i], ' ');
+            }
+            currentTurn = 'X';
+            xWantsRematch = false;
+            oWantsRematch = false;
+        }
+
+        public void addPlayer(ClientHandler player, char symbol) {
+            execute(() -> seatPlayer(player, symbol));
+        }
+
+        private void seatPlayer(ClientHandler player, char symbol) {
+            String token = newSessionToken();
+            sessions.put(token, new Seat(this, symbol));
+            if (symbol == 'X') {
+                playerX = player;
+                tokenX = token;
+                player.send("SYMBOL:X");
+            } else {
+                playerO = player;
+                tokenO = token;
+                player.send("SYMBOL:O");
+            }
+            player.send("SESSION:" + token);
+            player.send("ROOM:" + id);
+        }
+
+        // ================= SPECTATORS =================
+
+        // Late joiners get the same snapshot a resuming player gets, then the live feed
+        public void addSpectator(ClientHandler spectator) {
+            execute(() -> {
+                spectators.add(spectator);
+                spectator.send("ROOM:" + id);
+                spectator.send(snapshotFor('S'));
+            });
+        }
+
+        public void removeSpectator(ClientHandler spectator) {
+            execute(() -> spectators.remove(spectator));
+        }
+
+        // ================= SESSION RESUMPTION =================
+
+        // The connection dropped without a LEAVE: hold the seat for a while so the player
+        // can come back with their token. Nothing to hold if the opponent is gone too.
+        public void playerDropped(ClientHandler player) {
+            execute(() -> holdSeat(player));
+        }
+
+        private void holdSeat(ClientHandler player) {
+            ClientHandler opponent;
+            if (player == playerX) opponent = playerO;
+            else if (player == playerO) opponent = playerX;
+            else return; // an older connection for a seat that has since been resumed
+
+            if (opponent == null || !opponent.isConnected()) {
+                vacate(player);
+                return;
+            }
+
+            ServerLog.info("Player {} dropped from room {}, holding seat", player.getSymbol(), id);
+            opponent.send("MESSAGE:Opponent disconnected - waiting " + (RESUME_GRACE_MS / 1000) + "s for them to return");
+
+            TimingWheel.Timeout grace = timingWheel.schedule(
+                    () -> execute(() -> releaseSeat(player)), RESUME_GRACE_MS, TimeUnit.MILLISECONDS);
+            if (player == playerX) xGrace = grace;
+            else oGrace = grace;
+        }
+
+        // Grace period over - give the seat up if nobody reclaimed it
+        private void releaseSeat(ClientHandler dropped) {
+            if (dropped == playerX || dropped == playerO) {
+                vacate(dropped);
+            }
+        }
+
+        // Completes with false if the seat is no longer there to resume
+        public CompletableFuture<Boolean> resumePlayer(ClientHandler player, char symbol) {
+            return roomShards.ask(id, () -> reseat(player, symbol));
+        }
+
+        private boolean reseat(ClientHandler player, char symbol) {
+            ClientHandler previous = symbol == 'X' ? playerX : playerO;
+            if (previous == null && !restored) {
+                return claimSeat(player, symbol);
+            }
+            if (previous == null && (symbol == 'X' ? tokenX : tokenO) == null) {
+                return false;
+            }
+
+            if (symbol == 'X') {
+                playerX = player;
+                if (xGrace != null) xGrace.cancel();
+                xGrace = null;
+            } else {
+                playerO = player;
+                if (oGrace != null) oGrace.cancel();
+                oGrace = null;
+            }
+            // A half-open connection the server has not noticed yet - retire it
+            if (previous != null && previous != player && previous.isConnected()) {
+                previous.closeQuietly();
+            }
+
+            player.send(snapshotFor(symbol));
+            ClientHandler opponent = symbol == 'X' ? playerO : playerX;
+            if (opponent != null && opponent.isConnected()) {
+                opponent.send("MESSAGE:Opponent reconnected");
+            }
+
+            // Back from a checkpoint: nobody moves and no clock runs until both players are
+            if (restored) {
+                turnStartNanos = System.nanoTime();
+                if (playerX == null || playerO == null) {
+                    player.send("MESSAGE:Waiting for your opponent to reconnect");
+                    return true;
+                }
+                restored = false;
+                if (gameActive) {
+                    startTurnClock();
+                    sendTurns();
+                }
+                return true;
+            }
+            if (gameActive) {
+                player.send(currentTurn == symbol ? "YOUR_TURN" : "WAIT_TURN");
+            }
+            return true;
+        }
+
+        // ================= CHECKPOINT =================
+
+        public CompletableFuture<Boolean> isGameActive() {
+            return roomShards.ask(id, () -> gameActive);
+        }
+
+        public void announce(String message) {
+            execute(() -> broadcast(message));
+        }
+
+        // Drain: stops the game where it is and returns its state, or null if the room
+        // has lost a player and is not worth keeping
+        public CompletableFuture<RoomCheckpoint> checkpoint() {
+            return roomShards.ask(id, this::freeze);
+        }
+
+        private RoomCheckpoint freeze() {
+            if (tokenX == null || tokenO == null) {
+                return null;
+            }
+            boolean active = gameActive;
+            if (active) {
+                stopTurnClock();
+                gameActive = false;
+            }
+            char[] cells = new char[gridSize * gridSize];
+            for (int r = 0; r < gridSize; r++) {
+                System.arraycopy(board[r], 0, cells, r * gridSize, gridSize);
+            }
+            broadcast("MESSAGE:Server is restarting - your game will continue in a moment");
+            return new RoomCheckpoint(id, gridSize, cells, currentTurn, active, scoreX, scoreO, moveNumber,
+                    elapsedMs(), xRemainingMs, oRemainingMs, tokenX, tokenO, game.finish("Online", ' '));
+        }
+
+        // Start-up, before any client can connect: the tokens are valid straight away
+        public void restore(RoomCheckpoint checkpoint) {
+            sessions.put(checkpoint.tokenX, new Seat(this, 'X'));
+            sessions.put(checkpoint.tokenO, new Seat(this, 'O'));
+            execute(() -> {
+                for (int r = 0; r < gridSize; r++) {
+                    System.arraycopy(checkpoint.cells, r * gridSize, board[r], 0, gridSize);
+                }
+                currentTurn = checkpoint.turn;
+                gameActive = checkpoint.active;
+                scoreX = checkpoint.scoreX;
+                scoreO = checkpoint.scoreO;
+                moveNumber = checkpoint.moveNumber;
+                xRemainingMs = checkpoint.xRemainingMs;
+                oRemainingMs = checkpoint.oRemainingMs;
+                long now = System.nanoTime();
+                gameStartNanos = now - TimeUnit.MILLISECONDS.toNanos(checkpoint.elapsedMs);
+                turnStartNanos = now;
+                game.resume(checkpoint.game.playerX, checkpoint.game.playerO, checkpoint.game.startedAt,
+                        checkpoint.elapsedMs, checkpoint.game.cells, checkpoint.game.atMs);
+                restored = true;
+                holdSeatFor('X', checkpoint.tokenX);
+                holdSeatFor('O', checkpoint.tokenO);
+            });
+        }
+
+        // ================= CLUSTER SEATS =================
+
+        // Holds a seat for a player matched on another node, who is told to come here and
+        // claim it with the returned token. Called before the room is shared, so the token
+        // is in the session table before anyone can present it.
+        public String reserveSeat(char symbol) {
+            String token = newSessionToken();
+            sessions.put(token, new Seat(this, symbol));
+            execute(() -> holdSeatFor(symbol, token));
+            return token;
+        }
+
+        private void holdSeatFor(char symbol, String token) {
+            TimingWheel.Timeout grace = timingWheel.schedule(
+                    () -> execute(() -> releaseReservation(symbol)), RESUME_GRACE_MS, TimeUnit.MILLISECONDS);
+            if (symbol == 'X') {
+                tokenX = token;
+                xGrace = grace;
+            } else {
+                tokenO = token;
+                oGrace = grace;
+            }
+        }
+
+        // The player arrived with the token for a held seat: seat them and start
+        private boolean claimSeat(ClientHandler player, char symbol) {
+            if ((symbol == 'X' ? tokenX : tokenO) == null) {
+                return false;
+            }
+            if (symbol == 'X') {
+                playerX = player;
+                if (xGrace != null) xGrace.cancel();
+                xGrace = null;
+            } else {
+                playerO = player;
+                if (oGrace != null) oGrace.cancel();
+                oGrace = null;
+            }
+            ServerLog.info("Player {} claimed their seat in room {}", symbol, id);
+            player.send("SYMBOL:" + symbol);
+            player.send("ROOM:" + id);
+            beginGame();
+            return true;
+        }
+
+        // Nobody came for a held seat
+        private void releaseReservation(char symbol) {
+            if ((symbol == 'X' ? playerX : playerO) != null) {
+                return;
+            }
+            ServerLog.info("Seat {} in room {} was never claimed", symbol, id);
+            clearSeat(symbol);
+            abandon(symbol == 'X' ? playerO : playerX);
+        }
+
+        // Everything a returning player needs in one line:
+        // SNAPSHOT:roomId,gridSize,symbol,turn,scoreX,scoreO,active,elapsedMs,xLeftMs,oLeftMs,cells
+        // where cells lists the board row by row with '.' for empty squares.
+        private String snapshotFor(char symbol) {
+            long xLeft = xRemainingMs;
+            long oLeft = oRemainingMs;
+            // A restored game's clock is stopped until both players are back
+            if (gameActive && !restored) {
+                long used = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - turnStartNanos);
+                if (currentTurn == 'X') xLeft = Math.max(0, xLeft - used);
+                else oLeft = Math.max(0, oLeft - used);
+            }
+
+            StringBuilder sb = new StringBuilder("SNAPSHOT:");
+            sb.append(id).append(',').append(gridSize).append(',').append(symbol).append(',')
+                    .append(currentTurn).append(',').append(scoreX).append(',').append(scoreO).append(',')
+                    .append(gameActive ? 1 : 0).append(',').append(elapsedMs()).append(',')
+                    .append(xLeft).append(',').append(oLeft).append(',');
+            for (char[] row : board) {
+                for (char cell : row) {
+                    sb.append(cell == ' ' ? '.' : cell);
+                }
+            }
+            return sb.toString();
+        }
+
+        private void clearSeat(char symbol) {
+            if (symbol == 'X') {
+                playerX = null;
+                if (tokenX != null) sessions.remove(tokenX);
+                if (xGrace != null) xGrace.cancel();
+                tokenX = null;
+                xGrace = null;
+            } else {
+                playerO = null;
+                if (tokenO != null) sessions.remove(tokenO);
+                if (oGrace != null) oGrace.cancel();
+                tokenO = null;
+                oGrace = null;
+            }
+        }
+
+        public void removePlayer(ClientHandler player) {
+            execute(() -> vacate(player));
+        }
+
+        private void vacate(ClientHandler player) {
+            // Both players can leave at once; the second finds the room already freed
+            if (player != playerX && player != playerO) {
+                return;
+            }
+            ServerLog.info("Player {} leaving room {}", player.getSymbol(), id);
+
+            ClientHandler survivor;
+            if (player == playerX) {
+                clearSeat('X');
+                survivor = playerO;
+            } else {
+                clearSeat('O');
+                survivor = playerX;
+            }
+            abandon(survivor);
+        }
+
+        // The game cannot go on: the survivor, if any, goes back to matchmaking and the room is freed
+        private void abandon(ClientHandler survivor) {
+            gameActive = false;
+            if (turnTimeout != null) {
+                turnTimeout.cancel();
+                turnTimeout = null;
+            }
+
+            if (survivor != null) {
+                clearSeat(survivor == playerX ? 'X' : 'O');
+
+                if (survivor.isConnected()) {
+                    survivor.send("MESSAGE:Opponent disconnected");
+                    survivor.send("GAME_OVER:Opponent left the game");
+                    survivor.send("WAIT_TURN");
+                    survivor.leaveRoom();
+                    survivor.findMatch();
+                }
+            }
+
+            if (playerX == null && playerO == null) {
+                // A seat still held for a player on another node goes too
+                clearSeat('X');
+                clearSeat('O');
+
+                // Spectators go back to the lobby with the room
+                byte[] closed = ClientHandler.encode("ROOM_CLOSED");
+                for (ClientHandler spectator : spectators) {
+                    spectator.sendFrame(closed);
+                    spectator.leaveRoom();
+                }
+                spectators.clear();
+
+                gameRooms.remove(this);
+                ServerLog.info("Room {} removed (empty)", id);
+            }
+        }
+
+        public void startGame() {
+            execute(this::beginGame);
+        }
+
+        private void beginGame() {
+            if (playerX == null || playerO == null) {
+                return;
+            }
+
+            ServerLog.info("Starting game in room {}", id);
+            metrics.gameStarted();
+            gameActive = true;
+            resetBoard();
+
+            String xName = playerX.getPlayerName();
+            String oName = playerO.getPlayerName();
+            broadcast("MESSAGE:Game started! " + xName + " (X) vs " + oName + " (O)");
+            sendScores();
+
+            currentTurn = 'X';
+            xRemainingMs = gameBankMs;
+            oRemainingMs = gameBankMs;
+            moveNumber = 0;
+            gameStartNanos = System.nanoTime();
+            game.start(xName, oName);
+            startTurnClock();
+
+            if (playerX.isConnected()) {
+                playerX.send("YOUR_TURN");
+            }
+            if (playerO.isConnected()) {
+                playerO.send("WAIT_TURN");
+            }
+        }
+
+        // ================= GAME CLOCK =================
+
+        private long elapsedMs() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - gameStartNanos);
+        }
+
+        // Arms the deadline for whoever is on move and tells both players the clock state
+        private void startTurnClock() {
+            // A deadline left armed would fire for the same move and end the game early
+            if (turnTimeout != null) {
+                turnTimeout.cancel();
+            }
+            turnStartNanos = System.nanoTime();
+            long remaining = currentTurn == 'X' ? xRemainingMs : oRemainingMs;
+            long deadline = Math.min(moveLimitMs, remaining);
+
+            int expectedMove = moveNumber;
+            turnTimeout = timingWheel.schedule(() -> execute(() -> onTurnTimeout(expectedMove)), deadline, TimeUnit.MILLISECONDS);
+            broadcast("CLOCK:" + elapsedMs() + "," + xRemainingMs + "," + oRemainingMs + "," + deadline);
+        }
+
+        // Charges the player on move for the time they used
+        private void stopTurnClock() {
+            if (turnTimeout != null) {
+                turnTimeout.cancel();
+                turnTimeout = null;
+            }
+            long used = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - turnStartNanos);
+            if (currentTurn == 'X') xRemainingMs = Math.max(0, xRemainingMs - used);
+            else oRemainingMs = Math.max(0, oRemainingMs - used);
+        }
+
+        // Queued by the timing wheel thread
+        private void onTurnTimeout(int expectedMove) {
+            if (!gameActive || moveNumber != expectedMove) {
+                return; // the move arrived in time
+            }
+            turnTimeout = null;
+            stopTurnClock();
+
+            char winner = currentTurn == 'X' ? 'O' : 'X';
+            ServerLog.info("Player {} ran out of time in room {}", currentTurn, id);
+            finishGame(winner, "GAME_OVER:Player " + winner + " wins on time!");
+        }
+
+        // winner is ' ' for a draw
+        private void finishGame(char winner, String gameOverMessage) {
+            gameActive = false;
+            metrics.gameFinished();
+            MatchLog log = matchLog;
+            if (log != null) {
+                log.append(game.finish("Online", winner));
+            }
+            if (winner == 'X') scoreX++;
+            else if (winner == 'O') scoreO++;
+
+            if (winner != ' ') sendScores();
+            recordRatings(winner == 'X' ? 1.0 : (winner == 'O' ? 0.0 : 0.5));
+
+            broadcast("GAME_TIME:" + String.format(Locale.ROOT, "%.2f", elapsedMs() / 1000.0));
+            broadcast(gameOverMessage);
+        }
+
+        private void sendScores() {
+            broadcast("SCORES:" + scoreX + "," + scoreO);
+        }
+
+        // seq is the client's number for the move, or -1 if it sent none. A client that
+        // numbers its moves has already drawn them, so it gets REJECT:seq,reason back
+        // instead of a MESSAGE, and its copy of the UPDATE carries the number.
+        public void makeMove(int row, int col, int seq, ClientHandler player) {
+            // Timed from the reader thread, so it includes the wait in the shard's queue
+            GameEvents.Move event = new GameEvents.Move();
+            event.begin();
+            long start = System.nanoTime();
+            execute(() -> {
+                applyMove(row, col, seq, player);
+                metrics.recordMove(System.nanoTime() - start);
+                if (event.shouldCommit()) {
+                    event.roomId = id;
+                    event.gridSize = gridSize;
+                    event.row = row;
+                    event.col = col;
+                    event.commit();
+                }
+            });
+        }
+
+        private void applyMove(int row, int col, int seq, ClientHandler player) {
+            if (!gameActive) {
+                reject(player, seq, "Game is not active");
+                return;
+            }
+
+            if (restored) {
+                reject(player, seq, "Waiting for your opponent to reconnect");
+                return;
+            }
+
+            if (player.getSymbol() != currentTurn) {
+                reject(player, seq, "Not your turn!");
+                return;
+            }
+
+            if (row < 0 || row >= gridSize || col < 0 || col >= gridSize) {
+                reject(player, seq, "Invalid position!");
+                return;
+            }
+
+            if (board[row][col] != ' ') {
+                reject(player, seq, "Cell already occupied!");
+                return;
+            }
+
+            stopTurnClock();
+            moveNumber++;
+            board[row][col] = currentTurn;
+            game.move(row, col);
+            if (ServerLog.isDebugEnabled(id)) {
+                ServerLog.debug("Room {}: {} moved to {}", id, currentTurn, row + "," + col);
+            }
+
+            String update = "UPDATE:" + row + "," + col + "," + currentTurn;
+            if (seq >= 0) {
+                broadcast(update, player);
+                player.send(update + "," + seq);
+            } else {
+                broadcast(update);
+            }
+
+            if (checkWin(currentTurn)) {
+                finishGame(currentTurn, "GAME_OVER:Player " + currentTurn + " wins!");
+                ServerLog.info("Player {} wins in room {}", currentTurn, id);
+                return;
+            }
+
+            if (isBoardFull()) {
+                finishGame(' ', "GAME_OVER:Draw!");
+                ServerLog.info("Game draw in room {}", id);
+                return;
+            }
+
+            currentTurn = (currentTurn == 'X') ? 'O' : 'X';
+            startTurnClock();
+            sendTurns();
+        }
+
+        // YOUR_TURN to whoever is on move, WAIT_TURN to the other
+        private void sendTurns() {
+            if (currentTurn == 'X') {
+                if (playerX != null && playerX.isConnected()) playerX.send("YOUR_TURN");
+                if (playerO != null && playerO.isConnected()) playerO.send("WAIT_TURN");
+            } else {
+                if (playerO != null && playerO.isConnected()) playerO.send("YOUR_TURN");
+                if (playerX != null && playerX.isConnected()) playerX.send("WAIT_TURN");
+            }
+        }
+
+        private static void reject(ClientHandler player, int seq, String reason) {
+            player.send(seq >= 0 ? "REJECT:" + seq + "," + reason : "MESSAGE:" + reason);
+        }
+
+        private void recordRatings(double scoreX) {
+            if (playerX == null || playerO == null) {
+                return;
+            }
+            // Players who never sent a name would all share one rating
+            if (playerX.getPlayerName().equals(DEFAULT_PLAYER_NAME) || playerO.getPlayerName().equals(DEFAULT_PLAYER_NAME)) {
+                return;
+            }
+            double[] updated = ratingEngine.recordResult(playerX.getPlayerName(), playerO.getPlayerName(), scoreX);
+            ServerLog.info("Room {} ratings: X={} O={}", id, Math.round(updated[0]), Math.round(updated[1]));
+        }
+
+        private boolean checkWin(char symbol) {
+            return GameRules.checkWin(board, symbol);
+        }
+
+        private boolean isBoardFull() {
+            return GameRules.isBoardFull(board);
+        }
+
+        // Encodes the message once and hands the same buffer to every player and spectator
+        private void broadcast(String message) {
+            broadcast(message, null);
+        }
+
+        // The same, skipping one player who gets their own version of the message
+        private void broadcast(String message, ClientHandler except) {
+            broadcastFrame(ClientHandler.encode(message), except);
+        }
+
+        private void broadcastFrame(byte[] frame, ClientHandler except) {
+            if (playerX != null && playerX != except && playerX.isConnected()) playerX.sendFrame(frame);
+            if (playerO != null && playerO != except && playerO.isConnected()) playerO.sendFrame(frame);
+            for (int i = 0; i < spectators.size(); i++) {
+                spectators.get(i).sendFrame(frame);
+            }
+        }
+
+        // The encoded frame is also what the history keeps, so replaying it costs no encoding
+        public void broadcastChat(char senderSymbol, String senderName, String message) {
+            byte[] frame = ClientHandler.encode("CHAT:" + senderName + " (" + senderSymbol + "):" + message);
+            execute(() -> {
+                broadcastFrame(frame, null);
+                if (chatHistory.size() == CHAT_HISTORY_LIMIT) {
+                    chatHistory.pollFirst();
+                }
+                chatHistory.addLast(frame);
+            });
+        }
+
+        // HISTORY:count, then the room's last chat lines oldest first, for a spectator
+        // who just arrived or a player who was away
+        public void sendChatHistory(ClientHandler client) {
+            execute(() -> {
+                client.send("HISTORY:" + chatHistory.size());
+                for (byte[] frame : chatHistory) {
+                    client.sendFrame(frame);
+                }
+            });
+        }
+
+        public void handleRematch(ClientHandler player) {
+            execute(() -> acceptRematch(player));
+        }
+
+        private void acceptRematch(ClientHandler player) {
+            if (player.getSymbol() == 'X') {
+                xWantsRematch = true;
+                if (playerO != null && playerO.isConnected()) {
+                    playerO.send("MESSAGE:Opponent wants a rematch!");
+                }
+            } else {
+                oWantsRematch = true;
+                if (playerX != null && playerX.isConnected()) {
+                    playerX.send("MESSAGE:Opponent wants a rematch!");
+                }
+            }
+
+            if (xWantsRematch && oWantsRematch) {
+                broadcast("MESSAGE:Starting new game...");
+                broadcast("REMATCH_START");
+                beginGame();
+            }
+        }
+
+        public CompletableFuture<int[]> latency() {
+            return roomShards.ask(id, () -> new int[]{
+                    playerX != null ? playerX.getRttMs() : -1, playerX != null ? playerX.getJitterMs() : -1,
+                    playerO != null ? playerO.getRttMs() : -1, playerO != null ? playerO.getJitterMs() : -1});
+        }
+
+        // Server shutdown: say why (unless farewell is null), then drop everyone
+        public void close(String farewell) {
+            execute(() -> {
+                if (farewell != null) {
+                    broadcast(farewell);
+                }
+                cleanup();
+            });
+        }
+
+        private void cleanup() {
+            gameActive = false;
+            if (turnTimeout != null) {
+                turnTimeout.cancel();
+                turnTimeout = null;
+            }
+            if (tokenX != null) sessions.remove(tokenX);
+            if (tokenO != null) sessions.remove(tokenO);
+            if (playerX != null) {
+                try { playerX.disconnect(); } catch (Exception ignored) {}
+            }
+            if (playerO != null) {
+                try { playerO.disconnect(); } catch (Exception ignored) {}
+            }
+            for (ClientHandler spectator : new ArrayList<>(spectators)) {
+                try { spectator.disconnect(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
\ No newline at end of file
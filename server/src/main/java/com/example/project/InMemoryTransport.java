@@ -0,0 +1,163 @@
+package com.example.project;
+
+import java.io.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A connected pair of transports backed by two in-memory byte pipes, for a client
+// talking to the server embedded in its own JVM. Behaves like a socket as far as
+// the protocol code can tell: closing either end gives the other end EOF, and a
+// read blocked on the closed end fails the way a closed socket's would.
+public final class InMemoryTransport implements Transport {
+
+    private static final int PIPE_CAPACITY = 64 * 1024;
+    private static final AtomicInteger pairCounter = new AtomicInteger();
+
+    private final Pipe inbound;
+    private final Pipe outbound;
+    private final String remoteId;
+    private final InputStream in;
+    private final OutputStream out;
+    private volatile boolean closed = false;
+
+    private InMemoryTransport(Pipe inbound, Pipe outbound, String remoteId) {
+        this.inbound = inbound;
+        this.outbound = outbound;
+        this.remoteId = remoteId;
+        this.in = new PipeInputStream();
+        this.out = new PipeOutputStream();
+    }
+
+    // [0] is the client end, [1] the server end
+    public static InMemoryTransport[] pair() {
+        String id = "in-process:" + pairCounter.incrementAndGet();
+        Pipe toServer = new Pipe();
+        Pipe toClient = new Pipe();
+        return new InMemoryTransport[] {
+                new InMemoryTransport(toClient, toServer, id),
+                new InMemoryTransport(toServer, toClient, id)
+        };
+    }
+
+    public InputStream getInputStream() { return in; }
+    public OutputStream getOutputStream() { return out; }
+    public boolean isClosed() { return closed; }
+    public String getRemoteId() { return remoteId; }
+
+    public void close() {
+        closed = true;
+        inbound.closeReader();
+        outbound.closeWriter();
+    }
+
+    // ================= PIPE =================
+
+    // Bounded ring of bytes with one reader and one writer side. Unlike
+    // PipedInputStream it does not tie either side to the thread that used it
+    // first, so the server's pooled writer tasks can take turns on it.
+    private static final class Pipe {
+        private final byte[] buffer = new byte[PIPE_CAPACITY];
+        private int readPos = 0;
+        private int count = 0;
+        private boolean writerClosed = false;
+        private boolean readerClosed = false;
+
+        synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (count == 0) {
+                if (readerClosed) {
+                    throw new IOException("Transport closed");
+                }
+                if (writerClosed) {
+                    return -1;
+                }
+                waitInterruptibly();
+            }
+            if (readerClosed) {
+                throw new IOException("Transport closed");
+            }
+            int n = Math.min(len, Math.min(count, buffer.length - readPos));
+            System.arraycopy(buffer, readPos, b, off, n);
+            readPos = (readPos + n) % buffer.length;
+            count -= n;
+            notifyAll();
+            return n;
+        }
+
+        synchronized void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                while (count == buffer.length && !readerClosed && !writerClosed) {
+                    waitInterruptibly();
+                }
+                if (writerClosed || readerClosed) {
+                    throw new IOException("Transport closed");
+                }
+                int writePos = (readPos + count) % buffer.length;
+                int n = Math.min(len, Math.min(buffer.length - count, buffer.length - writePos));
+                System.arraycopy(b, off, buffer, writePos, n);
+                count += n;
+                off += n;
+                len -= n;
+                notifyAll();
+            }
+        }
+
+        synchronized int available() {
+            return count;
+        }
+
+        synchronized void closeReader() {
+            readerClosed = true;
+            notifyAll();
+        }
+
+        synchronized void closeWriter() {
+            writerClosed = true;
+            notifyAll();
+        }
+
+        private void waitInterruptibly() throws IOException {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    private final class PipeInputStream extends InputStream {
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : one[0] & 0xff;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            return inbound.read(b, off, len);
+        }
+
+        public int available() {
+            return inbound.available();
+        }
+
+        public void close() {
+            InMemoryTransport.this.close();
+        }
+    }
+
+    private final class PipeOutputStream extends OutputStream {
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        public void write(byte[] b, int off, int len) throws IOException {
+            outbound.write(b, off, len);
+        }
+
+        public void close() {
+            InMemoryTransport.this.close();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.project;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+// Reads '\n'-terminated UTF-8 lines like BufferedReader.readLine, but with a cap on
+// the line length. BufferedReader keeps growing its buffer until it sees a newline, so
+// a client that never sends one could make the server hold any amount of memory; here
+// a line longer than maxLineBytes fails as soon as the limit is crossed, with nothing
+// more read into memory. A trailing '\r' is dropped. One reader thread only.
+public class LineReader {
+
+    public static class LineTooLongException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public LineTooLongException(int limit) {
+            super("Line longer than " + limit + " bytes");
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[8192];
+    private int pos = 0;
+    private int limit = 0;
+    private final byte[] line;
+    private int length = 0;
+
+    public LineReader(InputStream in, int maxLineBytes) {
+        this.in = in;
+        this.line = new byte[maxLineBytes];
+    }
+
+    // The next line without its terminator, or null at the end of the stream
+    public String readLine() throws IOException {
+        while (true) {
+            if (pos == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    // Like BufferedReader, a last line without a newline still counts
+                    return length > 0 ? takeLine() : null;
+                }
+            }
+
+            while (pos < limit) {
+                byte b = buffer[pos++];
+                if (b == '\n') {
+                    return takeLine();
+                }
+                if (length == line.length) {
+                    throw new LineTooLongException(line.length);
+                }
+                line[length++] = b;
+            }
+        }
+    }
+
+    private String takeLine() {
+        int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+        String result = new String(line, 0, end, StandardCharsets.UTF_8);
+        length = 0;
+        return result;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.project;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Pairs waiting players of the same grid size by rating.
+// Waiting players sit in FIFO queues bucketed by grid size and rating band. A player's
+// acceptable rating gap starts at BASE_WINDOW and widens the longer they wait, and after
+// MAX_WAIT_MS they accept anyone, so no wait is unbounded.
+// All queue state is owned by a single matchmaker thread; network threads only post
+// requests to it, so a slow join never holds up a socket reader.
+public class MatchmakingService {
+
+    private static final int BAND_WIDTH = 50;
+    private static final double BASE_WINDOW = 100.0;
+    private static final double WINDOW_GROWTH_PER_SECOND = 50.0;
+    private static final long MAX_WAIT_MS = 20_000;
+    private static final long SWEEP_INTERVAL_MS = 500;
+
+    // Anyone who can wait for a match: a connection on this server, or in a cluster a
+    // player waiting on another node (see ClusterNode)
+    public interface Player {
+        boolean isConnected();
+    }
+
+    // Receives each pair the matchmaker decides on. Runs on the matchmaker thread.
+    public interface MatchListener {
+        void onMatch(Player playerX, Player playerO, int gridSize);
+    }
+
+    private static class Ticket {
+        final Player player;
+        final int gridSize;
+        final double rating;
+        final int band;
+        final long enqueuedNanos;
+        int candidatesScanned; // for the JFR match event
+
+        Ticket(Player player, int gridSize, double rating, long enqueuedNanos) {
+            this.player = player;
+            this.gridSize = gridSize;
+            this.rating = rating;
+            this.band = (int) Math.floor(rating / BAND_WIDTH);
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        long waitedMs(long now) {
+            return TimeUnit.NANOSECONDS.toMillis(now - enqueuedNanos);
+        }
+
+        double window(long now) {
+            long waited = waitedMs(now);
+            if (waited >= MAX_WAIT_MS) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return BASE_WINDOW + WINDOW_GROWTH_PER_SECOND * waited / 1000.0;
+        }
+    }
+
+    // Owned by the matchmaker thread
+    private final Map<Integer, TreeMap<Integer, ArrayDeque<Ticket>>> queues = new HashMap<>();
+    private final Map<Player, Ticket> tickets = new HashMap<>();
+
+    private final Map<Integer, LatencyHistogram> waitHistograms = new ConcurrentHashMap<>();
+    private final LatencyHistogram allWaits = new LatencyHistogram("matchmaking_wait", "ms");
+    private volatile int waitingCount = 0;
+
+    private final MatchListener listener;
+    private final ScheduledExecutorService executor;
+
+    public MatchmakingService(MatchListener listener) {
+        this.listener = listener;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "matchmaker");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // ================= REQUESTS FROM OTHER THREADS =================
+
+    public void enqueue(Player player, int gridSize, double rating) {
+        long now = System.nanoTime();
+        submit(() -> join(new Ticket(player, gridSize, rating, now)));
+    }
+
+    // Puts a player back in the queue keeping their original wait time
+    private void requeue(Ticket ticket) {
+        insert(ticket);
+    }
+
+    public void cancel(Player player) {
+        submit(() -> {
+            Ticket ticket = tickets.get(player);
+            if (ticket != null) {
+                remove(ticket);
+            }
+        });
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down
+        }
+    }
+
+    // ================= MATCHMAKER THREAD =================
+
+    private void join(Ticket ticket) {
+        if (tickets.containsKey(ticket.player)) {
+            remove(tickets.get(ticket.player));
+        }
+        if (!ticket.player.isConnected()) {
+            return;
+        }
+
+        Ticket opponent = findOpponent(ticket, System.nanoTime());
+        if (opponent == null) {
+            insert(ticket);
+        } else {
+            remove(opponent);
+            pair(opponent, ticket);
+        }
+    }
+
+    // Considers the nearest waiting ticket in the player's own band and in the closest
+    // occupied band on either side: three TreeMap lookups, so O(log n) per join.
+    // Players whose windows have grown since they arrived are picked up by sweep().
+    private Ticket findOpponent(Ticket ticket, long now) {
+        TreeMap<Integer, ArrayDeque<Ticket>> bands = queues.get(ticket.gridSize);
+        if (bands == null || bands.isEmpty()) {
+            return null;
+        }
+
+        Ticket best = null;
+        double bestGap = Double.POSITIVE_INFINITY;
+        Ticket[] candidates = {
+                firstOther(bands.get(ticket.band), ticket),
+                headOf(bands.lowerEntry(ticket.band)),
+                headOf(bands.higherEntry(ticket.band))
+        };
+        for (Ticket candidate : candidates) {
+            if (candidate == null) continue;
+            ticket.candidatesScanned++;
+            double gap = Math.abs(candidate.rating - ticket.rating);
+            if (gap <= Math.max(ticket.window(now), candidate.window(now)) && gap < bestGap) {
+                best = candidate;
+                bestGap = gap;
+            }
+        }
+        return best;
+    }
+
+    private static Ticket firstOther(ArrayDeque<Ticket> queue, Ticket self) {
+        if (queue == null) return null;
+        for (Ticket t : queue) {
+            if (t.player != self.player) return t;
+        }
+        return null;
+    }
+
+    private static Ticket headOf(Map.Entry<Integer, ArrayDeque<Ticket>> entry) {
+        return entry == null ? null : entry.getValue().peekFirst();
+    }
+
+    // Windows widen over time, so players who could not be paired on arrival
+    // are retried here, oldest first.
+    private void sweep() {
+        long now = System.nanoTime();
+        for (TreeMap<Integer, ArrayDeque<Ticket>> bands : new ArrayList<>(queues.values())) {
+            List<Ticket> heads = new ArrayList<>();
+            for (ArrayDeque<Ticket> queue : bands.values()) {
+                Ticket head = queue.peekFirst();
+                if (head != null) heads.add(head);
+            }
+            heads.sort(Comparator.comparingLong(t -> t.enqueuedNanos));
+
+            for (Ticket ticket : heads) {
+                if (tickets.get(ticket.player) != ticket) continue; // already paired this sweep
+                if (!ticket.player.isConnected()) {
+                    remove(ticket);
+                    continue;
+                }
+                Ticket opponent = findOpponent(ticket, now);
+                if (opponent != null) {
+                    remove(ticket);
+                    remove(opponent);
+                    pair(ticket, opponent);
+                }
+            }
+        }
+    }
+
+    private void pair(Ticket first, Ticket second) {
+        // Both sides might have dropped while waiting for this turn of the matchmaker
+        if (!first.player.isConnected() || !second.player.isConnected()) {
+            if (first.player.isConnected()) requeue(first);
+            if (second.player.isConnected()) requeue(second);
+            return;
+        }
+
+        long now = System.nanoTime();
+        double gap = Math.abs(first.rating - second.rating);
+        recordWait(first, now, gap);
+        recordWait(second, now, gap);
+
+        // The player who waited longer moves first
+        Ticket x = first.enqueuedNanos <= second.enqueuedNanos ? first : second;
+        Ticket o = x == first ? second : first;
+        listener.onMatch(x.player, o.player, x.gridSize);
+    }
+
+    private void recordWait(Ticket ticket, long now, double ratingGap) {
+        long waited = ticket.waitedMs(now);
+        allWaits.record(waited);
+        waitHistograms.computeIfAbsent(ticket.gridSize,
+                size -> new LatencyHistogram("matchmaking_wait_" + size + "x" + size, "ms")).record(waited);
+
+        GameEvents.Match event = new GameEvents.Match();
+        if (event.shouldCommit()) {
+            event.gridSize = ticket.gridSize;
+            event.waitMs = waited;
+            event.ratingGap = ratingGap;
+            event.candidatesScanned = ticket.candidatesScanned;
+            event.playersWaiting = waitingCount;
+            event.commit();
+        }
+    }
+
+    private void insert(Ticket ticket) {
+        queues.computeIfAbsent(ticket.gridSize, size -> new TreeMap<>())
+                .computeIfAbsent(ticket.band, band -> new ArrayDeque<>())
+                .addLast(ticket);
+        tickets.put(ticket.player, ticket);
+        waitingCount = tickets.size();
+    }
+
+    private void remove(Ticket ticket) {
+        tickets.remove(ticket.player);
+        waitingCount = tickets.size();
+
+        TreeMap<Integer, ArrayDeque<Ticket>> bands = queues.get(ticket.gridSize);
+        if (bands == null) return;
+        ArrayDeque<Ticket> queue = bands.get(ticket.band);
+        if (queue == null) return;
+        queue.remove(ticket);
+        if (queue.isEmpty()) {
+            bands.remove(ticket.band);
+        }
+    }
+
+    // ================= STATS =================
+
+    public int getWaitingCount() {
+        return waitingCount;
+    }
+
+    public LatencyHistogram getWaitHistogram() {
+        return allWaits;
+    }
+
+    public Map<Integer, LatencyHistogram> getWaitHistogramsByGridSize() {
+        return Collections.unmodifiableMap(waitHistograms);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.project;
+
+// Flood protection for one connection. Every inbound line takes a token from the
+// bucket for its kind and from the connection's bucket, so a client spamming CHAT:
+// or MOVE: is cut off before each line queues work on the room's shard. A line is only
+// charged when both allow it, so a flood of one kind does not starve the others. Lines
+// over the limit are dropped; each drop also takes a strike, and a client that keeps flooding
+// after the strike bucket is empty is disconnected.
+// Limits are generous next to what a person or the bundled client sends - one move
+// per turn, a PING every 2 s - so only a runaway or hostile client ever meets them.
+public class RateLimiter {
+
+    public enum Kind { MOVE, CHAT, CONTROL, PROBE }
+
+    public enum Verdict { ALLOW, DROP, DISCONNECT }
+
+    // {burst, per second} for each Kind, in declaration order
+    private static final double[][] KIND_LIMITS = {
+            {4, 2},    // MOVE
+            {5, 1},    // CHAT
+            {10, 1},   // CONTROL: NAME, GRIDSIZE, SPECTATE, RESUME, REMATCH, HISTORY, ...
+            {10, 2},   // PROBE: PING, PONG, LATENCY
+    };
+    private static final double CONNECTION_BURST = 30;
+    private static final double CONNECTION_PER_SECOND = 10;
+    // Drops forgiven before a disconnect, and how fast they are forgiven
+    private static final double STRIKE_BURST = 20;
+    private static final double STRIKES_PER_SECOND = 0.5;
+
+    private final TokenBucket connection;
+    private final TokenBucket[] byKind = new TokenBucket[Kind.values().length];
+    private final TokenBucket strikes;
+    private long dropped = 0;
+
+    public RateLimiter(long nowNanos) {
+        connection = new TokenBucket(CONNECTION_BURST, CONNECTION_PER_SECOND, nowNanos);
+        for (int i = 0; i < byKind.length; i++) {
+            byKind[i] = new TokenBucket(KIND_LIMITS[i][0], KIND_LIMITS[i][1], nowNanos);
+        }
+        strikes = new TokenBucket(STRIKE_BURST, STRIKES_PER_SECOND, nowNanos);
+    }
+
+    public static Kind kindOf(String message) {
+        if (message.startsWith("MOVE:")) return Kind.MOVE;
+        if (message.startsWith("CHAT:")) return Kind.CHAT;
+        if (message.startsWith("PING") || message.equals("PONG") || message.startsWith("LATENCY:")) return Kind.PROBE;
+        return Kind.CONTROL;
+    }
+
+    public Verdict check(Kind kind, long nowNanos) {
+        TokenBucket bucket = byKind[kind.ordinal()];
+        if (bucket.tryTake(nowNanos)) {
+            if (connection.tryTake(nowNanos)) {
+                return Verdict.ALLOW;
+            }
+            bucket.refund();
+        }
+        dropped++;
+        return strikes.tryTake(nowNanos) ? Verdict.DROP : Verdict.DISCONNECT;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
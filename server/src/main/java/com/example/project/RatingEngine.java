@@ -0,0 +1,227 @@
+package com.example.project;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Server-side Elo ratings for online games.
+// Each result only touches the two players involved: their entries are guarded by
+// striped locks, so results from different rooms never wait on each other unless they
+// share a player (or, rarely, a stripe). Changed ratings are written to the
+// LeaderboardStore in batches by a background flusher, which also loads stored ratings,
+// so no connection thread ever waits on the database.
+public class RatingEngine {
+
+    public static final double INITIAL_RATING = 1500.0;
+
+    private static final int STRIPES = 64; // power of two
+    private static final int PROVISIONAL_GAMES = 30;
+    private static final double K_PROVISIONAL = 40.0;
+    private static final double K_ESTABLISHED = 20.0;
+    private static final int BATCH_SIZE = 50;
+    private static final long FLUSH_INTERVAL_SECONDS = 5;
+
+    private static class PlayerRating {
+        // Guarded by the player's stripe lock
+        double rating;
+        int ratedGames;
+        // Set once the stored rating has been merged in (or there was none)
+        volatile boolean loaded;
+
+        PlayerRating(double rating, int ratedGames) {
+            this.rating = rating;
+            this.ratedGames = ratedGames;
+        }
+    }
+
+    private final ConcurrentHashMap<String, PlayerRating> ratings = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+
+    public RatingEngine() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rating-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private int stripeOf(String playerName) {
+        int h = playerName.hashCode();
+        h ^= (h >>> 16);
+        return h & (STRIPES - 1);
+    }
+
+    // Queues a load of the player's stored rating so the first result does not hit the
+    // database. Called from the player's connection thread when they identify themselves.
+    public void preload(String playerName) {
+        PlayerRating entry = ratings.get(playerName);
+        if (entry != null && entry.loaded) {
+            return;
+        }
+        try {
+            flusher.execute(() -> load(playerName));
+        } catch (RejectedExecutionException e) {
+            // Shutting down - the last flush loads it before writing
+        }
+    }
+
+    // Runs on the flusher. A result recorded before the load finished started from
+    // INITIAL_RATING, so its change is carried over onto the stored rating. If the
+    // database cannot be read the entry stays unloaded and the next flush retries.
+    private void load(String playerName) {
+        PlayerRating entry = ratings.get(playerName);
+        if (entry != null && entry.loaded) {
+            return;
+        }
+        LeaderboardStore.RatingRecord record;
+        try {
+            record = LeaderboardStore.loadRating(playerName);
+        } catch (SQLException e) {
+            ServerLog.warn("Could not load rating for {}: {}", playerName, e.getMessage());
+            return;
+        }
+
+        ReentrantLock lock = stripes[stripeOf(playerName)];
+        lock.lock();
+        try {
+            entry = ratings.computeIfAbsent(playerName, n -> new PlayerRating(INITIAL_RATING, 0));
+            if (!entry.loaded) {
+                if (record != null) {
+                    entry.rating = record.rating + (entry.rating - INITIAL_RATING);
+                    entry.ratedGames += record.ratedGames;
+                }
+                entry.loaded = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getRating(String playerName) {
+        PlayerRating entry = ratings.get(playerName);
+        if (entry == null) {
+            return INITIAL_RATING;
+        }
+        ReentrantLock lock = stripes[stripeOf(playerName)];
+        lock.lock();
+        try {
+            return entry.rating;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // scoreX is 1.0 for an X win, 0.0 for an O win and 0.5 for a draw.
+    // Returns the new ratings as {x, o}.
+    public double[] recordResult(String playerX, String playerO, double scoreX) {
+        if (playerX.equals(playerO)) {
+            // Both seats under one name - nothing meaningful to rate
+            double r = getRating(playerX);
+            return new double[]{r, r};
+        }
+
+        PlayerRating x = ratings.computeIfAbsent(playerX, n -> new PlayerRating(INITIAL_RATING, 0));
+        PlayerRating o = ratings.computeIfAbsent(playerO, n -> new PlayerRating(INITIAL_RATING, 0));
+
+        // Always lock the lower stripe first so two rooms sharing players cannot deadlock
+        int sx = stripeOf(playerX);
+        int so = stripeOf(playerO);
+        ReentrantLock first = stripes[Math.min(sx, so)];
+        ReentrantLock second = stripes[Math.max(sx, so)];
+
+        double newX;
+        double newO;
+        first.lock();
+        if (second != first) second.lock();
+        try {
+            double expectedX = 1.0 / (1.0 + Math.pow(10.0, (o.rating - x.rating) / 400.0));
+            double deltaX = kFactor(x) * (scoreX - expectedX);
+            double deltaO = kFactor(o) * ((1.0 - scoreX) - (1.0 - expectedX));
+
+            x.rating += deltaX;
+            o.rating += deltaO;
+            x.ratedGames++;
+            o.ratedGames++;
+            newX = x.rating;
+            newO = o.rating;
+        } finally {
+            if (second != first) second.unlock();
+            first.unlock();
+        }
+
+        dirty.add(playerX);
+        dirty.add(playerO);
+        if (dirty.size() >= BATCH_SIZE) {
+            flusher.execute(this::flush);
+        }
+        return new double[]{newX, newO};
+    }
+
+    private double kFactor(PlayerRating entry) {
+        return entry.ratedGames < PROVISIONAL_GAMES ? K_PROVISIONAL : K_ESTABLISHED;
+    }
+
+    // Writes every changed rating in one batch. Runs on the flusher thread.
+    private void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<LeaderboardStore.RatingRecord> batch = new ArrayList<>();
+        List<String> unloaded = new ArrayList<>();
+        Iterator<String> it = dirty.iterator();
+        while (it.hasNext()) {
+            String name = it.next();
+            it.remove();
+            PlayerRating entry = ratings.get(name);
+            if (entry == null) continue;
+            // Never write a rating over a stored one we have not read yet
+            if (!entry.loaded) {
+                load(name);
+                if (!entry.loaded) {
+                    unloaded.add(name);
+                    continue;
+                }
+            }
+
+            ReentrantLock lock = stripes[stripeOf(name)];
+            lock.lock();
+            try {
+                batch.add(new LeaderboardStore.RatingRecord(name, entry.rating, entry.ratedGames));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Held back until their stored rating can be read
+        dirty.addAll(unloaded);
+
+        if (!LeaderboardStore.saveRatings(batch)) {
+            // Keep them for the next attempt
+            for (LeaderboardStore.RatingRecord record : batch) {
+                dirty.add(record.playerName);
+            }
+        }
+    }
+
+    // Flushes pending ratings and stops the background flusher
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!dirty.isEmpty()) {
+            ServerLog.warn("{} ratings could not be written before shutdown", dirty.size());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.project;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// What a game room needs to carry on after a restart: the board, whose turn it is, the
+// scores, both clocks, the players' resume tokens and the game so far for the match
+// log. GameServer writes one per room when it drains and reads them back on the next
+// start.
+// The file is a header (magic, version, count) followed by one record per room. Cells
+// are packed two bits each, so a 3x3 room takes about 100 bytes plus 6 per move made.
+// It is written to a temporary file and moved into place, so a crash while writing
+// leaves the previous checkpoint, or none, rather than half of one.
+public class RoomCheckpoint {
+
+    private static final int MAGIC = 0x54545443; // "TTTC"
+    private static final int VERSION = 2;
+
+    public final int roomId;
+    public final int gridSize;
+    // Row by row, ' ', 'X' or 'O'
+    public final char[] cells;
+    public final char turn;
+    public final boolean active;
+    public final int scoreX;
+    public final int scoreO;
+    public final int moveNumber;
+    public final long elapsedMs;
+    public final long xRemainingMs;
+    public final long oRemainingMs;
+    // null for a seat nobody holds
+    public final String tokenX;
+    public final String tokenO;
+    // The current game's players and moves, with the winner left as ' '
+    public final MatchLog.Match game;
+
+    public RoomCheckpoint(int roomId, int gridSize, char[] cells, char turn, boolean active,
+                          int scoreX, int scoreO, int moveNumber, long elapsedMs,
+                          long xRemainingMs, long oRemainingMs, String tokenX, String tokenO,
+                          MatchLog.Match game) {
+        this.roomId = roomId;
+        this.gridSize = gridSize;
+        this.cells = cells;
+        this.turn = turn;
+        this.active = active;
+        this.scoreX = scoreX;
+        this.scoreO = scoreO;
+        this.moveNumber = moveNumber;
+        this.elapsedMs = elapsedMs;
+        this.xRemainingMs = xRemainingMs;
+        this.oRemainingMs = oRemainingMs;
+        this.tokenX = tokenX;
+        this.tokenO = tokenO;
+        this.game = game;
+    }
+
+    // ================= FILE =================
+
+    public static void save(Path file, List<RoomCheckpoint> rooms) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(rooms.size());
+            for (RoomCheckpoint room : rooms) {
+                room.writeTo(out);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // An empty list if there is no checkpoint
+    public static List<RoomCheckpoint> load(Path file) throws IOException {
+        List<RoomCheckpoint> rooms = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return rooms;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a room checkpoint");
+            }
+            int version = in.readUnsignedShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                rooms.add(readFrom(in));
+            }
+        }
+        return rooms;
+    }
+
+    // ================= RECORD =================
+
+    private void writeTo(DataOutputStream out) throws IOException {
+        // Stored in one byte, so refuse anything that would not read back as itself
+        if (!GameRules.isSupportedGridSize(gridSize)) {
+            throw new IOException("Room " + roomId + " has unsupported grid size " + gridSize);
+        }
+        out.writeInt(roomId);
+        out.writeByte(gridSize);
+        out.writeByte(turn);
+        out.writeBoolean(active);
+        out.writeInt(scoreX);
+        out.writeInt(scoreO);
+        out.writeInt(moveNumber);
+        out.writeLong(elapsedMs);
+        out.writeLong(xRemainingMs);
+        out.writeLong(oRemainingMs);
+        out.write(packCells(cells));
+        out.writeUTF(tokenX != null ? tokenX : "");
+        out.writeUTF(tokenO != null ? tokenO : "");
+        out.writeLong(game.startedAt);
+        out.writeUTF(game.playerX);
+        out.writeUTF(game.playerO);
+        out.writeShort(game.moveCount());
+        for (int i = 0; i < game.moveCount(); i++) {
+            out.writeShort(game.cells[i]);
+            out.writeInt(game.atMs[i]);
+        }
+    }
+
+    private static RoomCheckpoint readFrom(DataInputStream in) throws IOException {
+        int roomId = in.readInt();
+        int gridSize = in.readUnsignedByte();
+        if (!GameRules.isSupportedGridSize(gridSize)) {
+            throw new IOException("Bad grid size " + gridSize + " in room " + roomId);
+        }
+        char turn = (char) in.readUnsignedByte();
+        boolean active = in.readBoolean();
+        int scoreX = in.readInt();
+        int scoreO = in.readInt();
+        int moveNumber = in.readInt();
+        long elapsedMs = in.readLong();
+        long xRemainingMs = in.readLong();
+        long oRemainingMs = in.readLong();
+        byte[] packed = new byte[(gridSize * gridSize + 3) / 4];
+        in.readFully(packed);
+        String tokenX = in.readUTF();
+        String tokenO = in.readUTF();
+        long startedAt = in.readLong();
+        String playerX = in.readUTF();
+        String playerO = in.readUTF();
+        int moves = in.readUnsignedShort();
+        short[] moveCells = new short[moves];
+        int[] moveTimes = new int[moves];
+        for (int i = 0; i < moves; i++) {
+            moveCells[i] = in.readShort();
+            moveTimes[i] = in.readInt();
+        }
+        MatchLog.Match game = new MatchLog.Match(startedAt, "Online", playerX, playerO, gridSize, ' ',
+                (int) elapsedMs, moveCells, moveTimes);
+        return new RoomCheckpoint(roomId, gridSize, unpackCells(packed, gridSize * gridSize), turn, active,
+                scoreX, scoreO, moveNumber, elapsedMs, xRemainingMs, oRemainingMs,
+                tokenX.isEmpty() ? null : tokenX, tokenO.isEmpty() ? null : tokenO, game);
+    }
+
+    // 0 empty, 1 X, 2 O; four cells to a byte
+    private static byte[] packCells(char[] cells) {
+        byte[] packed = new byte[(cells.length + 3) / 4];
+        for (int i = 0; i < cells.length; i++) {
+            int code = cells[i] == 'X' ? 1 : (cells[i] == 'O' ? 2 : 0);
+            packed[i / 4] |= (byte) (code << ((i % 4) * 2));
+        }
+        return packed;
+    }
+
+    private static char[] unpackCells(byte[] packed, int count) {
+        char[] cells = new char[count];
+        for (int i = 0; i < count; i++) {
+            int code = (packed[i / 4] >> ((i % 4) * 2)) & 3;
+            cells[i] = code == 1 ? 'X' : (code == 2 ? 'O' : ' ');
+        }
+        return cells;
+    }
+}
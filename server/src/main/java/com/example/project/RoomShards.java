@@ -0,0 +1,77 @@
+package com.example.project;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// A fixed set of single-threaded executors that game rooms are pinned to by id.
+// Everything a room does runs on its shard's thread, one command at a time, so room
+// state needs no lock and is never handed between threads. Network and timer threads
+// only queue commands, the same way they post to the matchmaker. Commands for one room
+// run in the order they were queued; rooms on different shards run in parallel.
+public class RoomShards {
+
+    private final ExecutorService[] shards;
+
+    public RoomShards(String name, int count) {
+        shards = new ExecutorService[Math.max(1, count)];
+        for (int i = 0; i < shards.length; i++) {
+            String threadName = name + "-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // -Dtictactoe.room.shards, or one shard per core
+    public static int defaultCount() {
+        return Integer.getInteger("tictactoe.room.shards", Runtime.getRuntime().availableProcessors());
+    }
+
+    public int size() {
+        return shards.length;
+    }
+
+    public int shardOf(int roomId) {
+        return Math.floorMod(roomId, shards.length);
+    }
+
+    public void execute(int roomId, Runnable command) {
+        try {
+            shards[shardOf(roomId)].execute(() -> {
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    // Keep the shard thread; one bad command must not stall its other rooms
+                    ServerLog.error("Room {} command failed", roomId, e);
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down
+        }
+    }
+
+    // For the few callers that need an answer from the room. The future fails if the
+    // shards are shutting down.
+    public <T> CompletableFuture<T> ask(int roomId, Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, shards[shardOf(roomId)]);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Runs what is already queued, refuses anything new, and waits up to the timeout
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService shard : shards) {
+            if (!shard.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                shard.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.project;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Asynchronous logger for the server.
+// Callers copy a template and its arguments into a preallocated ring slot and return;
+// formatting and the actual write happen on a single background thread, so logging
+// never takes the stdout lock while a room monitor is held. If the writer falls
+// behind and the ring fills up, new entries are dropped and counted rather than
+// blocking the game.
+//
+// Templates use {} placeholders. Debug calls cost one volatile read when debug is off;
+// hot paths that would box or concatenate arguments check isDebugEnabled(roomId) first,
+// which also applies room sampling so a busy server only traces some rooms.
+//
+// Configuration (system properties):
+//   tictactoe.log.level       DEBUG, INFO (default), WARN or ERROR
+//   tictactoe.log.roomSample  trace 1 in N rooms at DEBUG (default 1 = every room)
+public final class ServerLog {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int CAPACITY = 8192; // power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final class Entry {
+        Level level;
+        long timeMillis;
+        String thread;
+        String template;
+        Object a0, a1, a2;
+        Throwable error;
+    }
+
+    private static final Entry[] ring = new Entry[CAPACITY];
+    // published[i] holds the sequence number last written to slot i
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong head = new AtomicLong();
+    private static volatile long tail = 0; // written only by the writer thread
+    private static final LongAdder dropped = new LongAdder();
+
+    private static volatile Level threshold = parseLevel(System.getProperty("tictactoe.log.level"));
+    private static volatile int roomSample = Math.max(1, Integer.getInteger("tictactoe.log.roomSample", 1));
+
+    private static volatile boolean running = true;
+    private static volatile boolean writerIdle = false;
+    private static final Thread writer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            ring[i] = new Entry();
+            published.set(i, -1);
+        }
+        writer = new Thread(ServerLog::drain, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private ServerLog() {}
+
+    private static Level parseLevel(String value) {
+        if (value == null) {
+            return Level.INFO;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+
+    // ================= CONFIGURATION =================
+
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    public static Level getLevel() {
+        return threshold;
+    }
+
+    public static void setRoomSample(int everyNthRoom) {
+        roomSample = Math.max(1, everyNthRoom);
+    }
+
+    public static boolean isDebugEnabled() {
+        return threshold == Level.DEBUG;
+    }
+
+    // True if debug is on and this room is one of the sampled ones
+    public static boolean isDebugEnabled(int roomId) {
+        return threshold == Level.DEBUG && Math.floorMod(roomId, roomSample) == 0;
+    }
+
+    public static long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // ================= LOGGING =================
+
+    public static void debug(String template) { if (isDebugEnabled()) log(Level.DEBUG, template, null, null, null, null); }
+    public static void debug(String template, Object a0) { if (isDebugEnabled()) log(Level.DEBUG, template, a0, null, null, null); }
+    public static void debug(String template, Object a0, Object a1) { if (isDebugEnabled()) log(Level.DEBUG, template, a0, a1, null, null); }
+    public static void debug(String template, Object a0, Object a1, Object a2) { if (isDebugEnabled()) log(Level.DEBUG, template, a0, a1, a2, null); }
+
+    public static void info(String template) { log(Level.INFO, template, null, null, null, null); }
+    public static void info(String template, Object a0) { log(Level.INFO, template, a0, null, null, null); }
+    public static void info(String template, Object a0, Object a1) { log(Level.INFO, template, a0, a1, null, null); }
+    public static void info(String template, Object a0, Object a1, Object a2) { log(Level.INFO, template, a0, a1, a2, null); }
+
+    public static void warn(String template) { log(Level.WARN, template, null, null, null, null); }
+    public static void warn(String template, Object a0) { log(Level.WARN, template, a0, null, null, null); }
+    public static void warn(String template, Object a0, Object a1) { log(Level.WARN, template, a0, a1, null, null); }
+
+    public static void error(String template, Throwable error) { log(Level.ERROR, template, null, null, null, error); }
+    public static void error(String template, Object a0, Throwable error) { log(Level.ERROR, template, a0, null, null, error); }
+
+    private static void log(Level level, String template, Object a0, Object a1, Object a2, Throwable error) {
+        if (level.ordinal() < threshold.ordinal()) {
+            return;
+        }
+
+        // Claim a slot, or drop the entry if the writer is a full ring behind
+        long seq;
+        do {
+            seq = head.get();
+            if (seq - tail >= CAPACITY) {
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(seq, seq + 1));
+
+        int index = (int) (seq & MASK);
+        Entry entry = ring[index];
+        entry.level = level;
+        entry.timeMillis = System.currentTimeMillis();
+        entry.thread = Thread.currentThread().getName();
+        entry.template = template;
+        entry.a0 = a0;
+        entry.a1 = a1;
+        entry.a2 = a2;
+        entry.error = error;
+        published.set(index, seq); // makes the fields above visible to the writer
+
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // ================= WRITER THREAD =================
+
+    private static void drain() {
+        StringBuilder sb = new StringBuilder(256);
+        boolean pendingFlush = false;
+
+        while (true) {
+            long seq = tail;
+            int index = (int) (seq & MASK);
+            if (published.get(index) != seq) {
+                if (pendingFlush) {
+                    System.out.flush();
+                    System.err.flush();
+                    pendingFlush = false;
+                }
+                if (!running && head.get() == seq) {
+                    return;
+                }
+                writerIdle = true;
+                if (published.get(index) != seq) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+                continue;
+            }
+
+            Entry entry = ring[index];
+            sb.setLength(0);
+            format(entry, sb);
+            PrintStream stream = entry.level.ordinal() >= Level.WARN.ordinal() ? System.err : System.out;
+            stream.append(sb);
+            pendingFlush = true;
+
+            // Release references so the ring does not keep arguments alive
+            entry.template = null;
+            entry.thread = null;
+            entry.a0 = entry.a1 = entry.a2 = null;
+            entry.error = null;
+            tail = seq + 1;
+        }
+    }
+
+    private static void format(Entry entry, StringBuilder sb) {
+        TIME_FORMAT.formatTo(Instant.ofEpochMilli(entry.timeMillis), sb);
+        sb.append(' ').append(entry.level);
+        if (entry.level.name().length() == 4) sb.append(' ');
+        sb.append(" [").append(entry.thread).append("] ");
+
+        String template = entry.template;
+        Object[] args = {entry.a0, entry.a1, entry.a2};
+        int arg = 0;
+        int start = 0;
+        int hole;
+        while (arg < args.length && (hole = template.indexOf("{}", start)) >= 0) {
+            sb.append(template, start, hole).append(args[arg++]);
+            start = hole + 2;
+        }
+        sb.append(template, start, template.length()).append(System.lineSeparator());
+
+        if (entry.error != null) {
+            StringWriter trace = new StringWriter();
+            entry.error.printStackTrace(new PrintWriter(trace));
+            sb.append(trace);
+        }
+    }
+
+    // Writes out everything logged so far and stops the writer
+    public static void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long lost = dropped.sum();
+        if (lost > 0) {
+            System.err.println("Log entries dropped: " + lost);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.project;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import javax.management.ObjectName;
+
+// Live numbers for the game server.
+// Counters are LongAdders bumped from connection threads without any locking; gauges
+// (rooms, waiting players) are read from their owners only when someone looks.
+// Per-second rates are worked out once a second from the counter deltas.
+//
+// Exposed two ways:
+//   JMX      com.example.project:type=ServerMetrics (jconsole, VisualVM, ...)
+//   HTTP     http://127.0.0.1:<port>/metrics in Prometheus text format, loopback only.
+//            The port comes from -Dtictactoe.metrics.port (default 9100, 0 turns it off).
+public class ServerMetrics {
+
+    public static final int DEFAULT_HTTP_PORT = 9100;
+    private static final long SAMPLE_INTERVAL_MS = 1_000;
+
+    // Read-only JMX view of the same numbers
+    public interface ServerMetricsMXBean {
+        long getActiveConnections();
+        long getConnectionsTotal();
+        int getWaitingPlayers();
+        Map<Integer, Integer> getRoomsByGridSize();
+        long getMessagesIn();
+        long getMessagesOut();
+        double getMessagesInPerSecond();
+        double getMessagesOutPerSecond();
+        double getBytesInPerSecond();
+        double getBytesOutPerSecond();
+        long getGamesStarted();
+        long getGamesFinished();
+        long getMoveLatencyP50Micros();
+        long getMoveLatencyP99Micros();
+        long getMoveLatencyP999Micros();
+        long getMatchmakingWaitP50Millis();
+        long getMatchmakingWaitP99Millis();
+        long getMessagesThrottled();
+        long getFloodDisconnects();
+        long getOversizedLines();
+        long getClientRttP50Millis();
+        long getClientRttP99Millis();
+        Map<Integer, String> getLatencyByRoom();
+    }
+
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final LongAdder messagesIn = new LongAdder();
+    private final LongAdder messagesOut = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    // Lines dropped by each connection's RateLimiter, by RateLimiter.Kind
+    private final LongAdder[] throttled = new LongAdder[RateLimiter.Kind.values().length];
+    private final LongAdder floodDisconnects = new LongAdder();
+    private final LongAdder oversizedLines = new LongAdder();
+    private final LatencyHistogram moveLatency = new LatencyHistogram("move_processing", "us");
+    private final LatencyHistogram clientRtt = new LatencyHistogram("client_rtt", "ms");
+
+    private final LatencyHistogram matchmakingWait;
+    private final IntSupplier waitingPlayers;
+    private final Supplier<Map<Integer, Integer>> roomsByGridSize;
+    // Room id -> {xRttMs, xJitterMs, oRttMs, oJitterMs}, -1 where a player has not reported
+    private final Supplier<Map<Integer, int[]>> latencyByRoom;
+
+    // Rates from the last sample, written only by the sampling task
+    private volatile double messagesInRate;
+    private volatile double messagesOutRate;
+    private volatile double bytesInRate;
+    private volatile double bytesOutRate;
+    private long lastSampleNanos = System.nanoTime();
+    private long lastMessagesIn, lastMessagesOut, lastBytesIn, lastBytesOut;
+
+    private TimingWheel sampler;
+    private HttpServer httpServer;
+    private ObjectName jmxName;
+
+    public ServerMetrics(LatencyHistogram matchmakingWait, IntSupplier waitingPlayers,
+                         Supplier<Map<Integer, Integer>> roomsByGridSize,
+                         Supplier<Map<Integer, int[]>> latencyByRoom) {
+        this.matchmakingWait = matchmakingWait;
+        this.waitingPlayers = waitingPlayers;
+        this.roomsByGridSize = roomsByGridSize;
+        this.latencyByRoom = latencyByRoom;
+        for (int i = 0; i < throttled.length; i++) {
+            throttled[i] = new LongAdder();
+        }
+    }
+
+    // ================= RECORDING =================
+
+    public void connectionOpened() { connectionsOpened.increment(); }
+    public void connectionClosed() { connectionsClosed.increment(); }
+    public void gameStarted() { gamesStarted.increment(); }
+    public void gameFinished() { gamesFinished.increment(); }
+    public void messageThrottled(RateLimiter.Kind kind) { throttled[kind.ordinal()].increment(); }
+    public void floodDisconnect() { floodDisconnects.increment(); }
+    public void oversizedLine() { oversizedLines.increment(); }
+
+    public void messageIn(int bytes) {
+        messagesIn.increment();
+        bytesIn.add(bytes);
+    }
+
+    public void messageOut(int bytes) {
+        messagesOut.increment();
+        bytesOut.add(bytes);
+    }
+
+    public void recordMove(long elapsedNanos) {
+        moveLatency.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    // A round trip reported by a client (LATENCY:rttMs,jitterMs)
+    public void recordClientRtt(long millis) {
+        clientRtt.record(millis);
+    }
+
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    // ================= LIFECYCLE =================
+
+    // Starts the once-a-second rate sampler and publishes the JMX bean and HTTP endpoint.
+    // A port of 0 skips the HTTP endpoint.
+    public void start(TimingWheel wheel, int httpPort) {
+        this.sampler = wheel;
+        scheduleSample();
+
+        try {
+            jmxName = new ObjectName("com.example.project:type=ServerMetrics");
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBeanView(), jmxName);
+        } catch (Exception e) {
+            ServerLog.warn("Could not register metrics MXBean: {}", e.getMessage());
+            jmxName = null;
+        }
+
+        if (httpPort > 0) {
+            try {
+                httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), httpPort), 0);
+                httpServer.createContext("/metrics", exchange -> {
+                    byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        os.write(body);
+                    }
+                });
+                httpServer.start();
+                ServerLog.info("Metrics available at http://127.0.0.1:{}/metrics", httpPort);
+            } catch (IOException e) {
+                ServerLog.warn("Could not start metrics endpoint on port {}: {}", httpPort, e.getMessage());
+                httpServer = null;
+            }
+        }
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+        if (jmxName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(jmxName);
+            } catch (Exception ignored) {}
+        }
+        sampler = null;
+    }
+
+    private void scheduleSample() {
+        TimingWheel wheel = sampler;
+        if (wheel != null) {
+            wheel.schedule(this::sample, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Runs on the timer thread once a second
+    private void sample() {
+        long now = System.nanoTime();
+        double seconds = (now - lastSampleNanos) / 1e9;
+        if (seconds > 0) {
+            long in = messagesIn.sum();
+            long out = messagesOut.sum();
+            long bin = bytesIn.sum();
+            long bout = bytesOut.sum();
+            messagesInRate = (in - lastMessagesIn) / seconds;
+            messagesOutRate = (out - lastMessagesOut) / seconds;
+            bytesInRate = (bin - lastBytesIn) / seconds;
+            bytesOutRate = (bout - lastBytesOut) / seconds;
+            lastMessagesIn = in;
+            lastMessagesOut = out;
+            lastBytesIn = bin;
+            lastBytesOut = bout;
+        }
+        lastSampleNanos = now;
+        scheduleSample();
+    }
+
+    // ================= EXPORT =================
+
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(2048);
+        gauge(sb, "tictactoe_connections_active", "Open client connections",
+                connectionsOpened.sum() - connectionsClosed.sum());
+        counter(sb, "tictactoe_connections_total", "Client connections accepted", connectionsOpened.sum());
+        gauge(sb, "tictactoe_matchmaking_waiting", "Players waiting for an opponent", waitingPlayers.getAsInt());
+
+        sb.append("# HELP tictactoe_rooms Game rooms by grid size\n# TYPE tictactoe_rooms gauge\n");
+        for (Map.Entry<Integer, Integer> e : new TreeMap<>(roomsByGridSize.get()).entrySet()) {
+            sb.append("tictactoe_rooms{grid=\"").append(e.getKey()).append("\"} ").append(e.getValue()).append('\n');
+        }
+
+        counter(sb, "tictactoe_messages_in_total", "Lines received from clients", messagesIn.sum());
+        counter(sb, "tictactoe_messages_out_total", "Lines sent to clients", messagesOut.sum());
+        counter(sb, "tictactoe_bytes_in_total", "Bytes received from clients", bytesIn.sum());
+        counter(sb, "tictactoe_bytes_out_total", "Bytes sent to clients", bytesOut.sum());
+        gauge(sb, "tictactoe_messages_in_per_second", "Inbound lines per second", messagesInRate);
+        gauge(sb, "tictactoe_messages_out_per_second", "Outbound lines per second", messagesOutRate);
+        gauge(sb, "tictactoe_bytes_in_per_second", "Inbound bytes per second", bytesInRate);
+        gauge(sb, "tictactoe_bytes_out_per_second", "Outbound bytes per second", bytesOutRate);
+        header(sb, "tictactoe_messages_throttled_total", "Lines dropped for exceeding a rate limit", "counter");
+        for (RateLimiter.Kind kind : RateLimiter.Kind.values()) {
+            sb.append("tictactoe_messages_throttled_total{type=\"").append(kind.name().toLowerCase(Locale.ROOT))
+                    .append("\"} ").append(throttled[kind.ordinal()].sum()).append('\n');
+        }
+        counter(sb, "tictactoe_flood_disconnects_total", "Clients disconnected for flooding", floodDisconnects.sum());
+        counter(sb, "tictactoe_oversized_lines_total", "Clients disconnected for sending an over-long line",
+                oversizedLines.sum());
+        counter(sb, "tictactoe_games_started_total", "Games started, rematches included", gamesStarted.sum());
+        counter(sb, "tictactoe_games_finished_total", "Games that ended in a result", gamesFinished.sum());
+
+        summary(sb, "tictactoe_move_processing_microseconds", "Server time to apply a move", moveLatency);
+        summary(sb, "tictactoe_matchmaking_wait_milliseconds", "Time from queueing to being paired", matchmakingWait);
+        summary(sb, "tictactoe_client_rtt_milliseconds", "Round trips reported by clients", clientRtt);
+        roomLatency(sb);
+        counter(sb, "tictactoe_log_dropped_total", "Log entries dropped because the log ring was full",
+                ServerLog.getDroppedCount());
+        return sb.toString();
+    }
+
+    // Each seated player's last report, labelled by room so complaints can be matched to a game
+    private void roomLatency(StringBuilder sb) {
+        Map<Integer, int[]> rooms = new TreeMap<>(latencyByRoom.get());
+        header(sb, "tictactoe_room_rtt_milliseconds", "Last round trip reported by each player", "gauge");
+        for (Map.Entry<Integer, int[]> e : rooms.entrySet()) {
+            playerGauge(sb, "tictactoe_room_rtt_milliseconds", e.getKey(), 'X', e.getValue()[0]);
+            playerGauge(sb, "tictactoe_room_rtt_milliseconds", e.getKey(), 'O', e.getValue()[2]);
+        }
+        header(sb, "tictactoe_room_jitter_milliseconds", "Last jitter reported by each player", "gauge");
+        for (Map.Entry<Integer, int[]> e : rooms.entrySet()) {
+            playerGauge(sb, "tictactoe_room_jitter_milliseconds", e.getKey(), 'X', e.getValue()[1]);
+            playerGauge(sb, "tictactoe_room_jitter_milliseconds", e.getKey(), 'O', e.getValue()[3]);
+        }
+    }
+
+    private static void playerGauge(StringBuilder sb, String name, int room, char player, int value) {
+        if (value >= 0) {
+            sb.append(name).append("{room=\"").append(room).append("\",player=\"").append(player).append("\"} ")
+                    .append(value).append('\n');
+        }
+    }
+
+    private static void header(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, long value) {
+        header(sb, name, help, "counter");
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, long value) {
+        header(sb, name, help, "gauge");
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, double value) {
+        header(sb, name, help, "gauge");
+        sb.append(name).append(' ').append(String.format(Locale.ROOT, "%.2f", value)).append('\n');
+    }
+
+    private static void summary(StringBuilder sb, String name, String help, LatencyHistogram histogram) {
+        header(sb, name, help, "summary");
+        sb.append(name).append("{quantile=\"0.5\"} ").append(histogram.percentile(50)).append('\n');
+        sb.append(name).append("{quantile=\"0.99\"} ").append(histogram.percentile(99)).append('\n');
+        sb.append(name).append("{quantile=\"0.999\"} ").append(histogram.percentile(99.9)).append('\n');
+        sb.append(name).append("_count ").append(histogram.count()).append('\n');
+        sb.append(name).append("_max ").append(histogram.max()).append('\n');
+    }
+
+    private class MXBeanView implements ServerMetricsMXBean {
+        public long getActiveConnections() { return connectionsOpened.sum() - connectionsClosed.sum(); }
+        public long getConnectionsTotal() { return connectionsOpened.sum(); }
+        public int getWaitingPlayers() { return waitingPlayers.getAsInt(); }
+        public Map<Integer, Integer> getRoomsByGridSize() { return new TreeMap<>(roomsByGridSize.get()); }
+        public long getMessagesIn() { return messagesIn.sum(); }
+        public long getMessagesOut() { return messagesOut.sum(); }
+        public double getMessagesInPerSecond() { return messagesInRate; }
+        public double getMessagesOutPerSecond() { return messagesOutRate; }
+        public double getBytesInPerSecond() { return bytesInRate; }
+        public double getBytesOutPerSecond() { return bytesOutRate; }
+        public long getGamesStarted() { return gamesStarted.sum(); }
+        public long getGamesFinished() { return gamesFinished.sum(); }
+        public long getMoveLatencyP50Micros() { return moveLatency.percentile(50); }
+        public long getMoveLatencyP99Micros() { return moveLatency.percentile(99); }
+        public long getMoveLatencyP999Micros() { return moveLatency.percentile(99.9); }
+        public long getMatchmakingWaitP50Millis() { return matchmakingWait.percentile(50); }
+        public long getMatchmakingWaitP99Millis() { return matchmakingWait.percentile(99); }
+        public long getFloodDisconnects() { return floodDisconnects.sum(); }
+        public long getOversizedLines() { return oversizedLines.sum(); }
+
+        public long getMessagesThrottled() {
+            long total = 0;
+            for (LongAdder adder : throttled) {
+                total += adder.sum();
+            }
+            return total;
+        }
+
+        public long getClientRttP50Millis() { return clientRtt.percentile(50); }
+        public long getClientRttP99Millis() { return clientRtt.percentile(99); }
+
+        public Map<Integer, String> getLatencyByRoom() {
+            Map<Integer, String> view = new TreeMap<>();
+            for (Map.Entry<Integer, int[]> e : latencyByRoom.get().entrySet()) {
+                int[] l = e.getValue();
+                view.put(e.getKey(), String.format(Locale.ROOT, "X %s, O %s", describe(l[0], l[1]), describe(l[2], l[3])));
+            }
+            return view;
+        }
+
+        private String describe(int rtt, int jitter) {
+            return rtt < 0 ? "-" : rtt + "±" + jitter + " ms";
+        }
+    }
+}
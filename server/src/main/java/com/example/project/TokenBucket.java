@@ -0,0 +1,40 @@
+package com.example.project;
+
+import java.util.concurrent.TimeUnit;
+
+// Classic token bucket: holds up to `capacity` tokens and gains `perSecond` of them
+// every second. Each allowed event takes one, so a client may burst up to the
+// capacity and then keep up the refill rate. Refilled lazily from the caller's clock;
+// not thread-safe - each bucket belongs to one connection's reader thread.
+public class TokenBucket {
+
+    private final double capacity;
+    private final double perNano;
+    private double tokens;
+    private long lastNanos;
+
+    public TokenBucket(double capacity, double perSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.perNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastNanos = nowNanos;
+    }
+
+    public boolean tryTake(long nowNanos) {
+        long elapsed = nowNanos - lastNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * perNano);
+            lastNanos = nowNanos;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    // Hands back a token taken by tryTake for an event that was not let through after all
+    public void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
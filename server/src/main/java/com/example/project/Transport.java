@@ -0,0 +1,28 @@
+package com.example.project;
+
+import java.io.*;
+import java.net.Socket;
+
+// One end of a byte-stream connection to the game server. Normally a TCP socket;
+// a client hosted in the same JVM gets an in-memory pipe instead (InMemoryTransport).
+public interface Transport extends Closeable {
+
+    InputStream getInputStream() throws IOException;
+
+    OutputStream getOutputStream() throws IOException;
+
+    boolean isClosed();
+
+    // host:port for sockets, used in logs to tell clients apart
+    String getRemoteId();
+
+    static Transport of(Socket socket) {
+        return new Transport() {
+            public InputStream getInputStream() throws IOException { return socket.getInputStream(); }
+            public OutputStream getOutputStream() throws IOException { return socket.getOutputStream(); }
+            public boolean isClosed() { return socket.isClosed(); }
+            public String getRemoteId() { return socket.getInetAddress().getHostAddress() + ":" + socket.getPort(); }
+            public void close() throws IOException { socket.close(); }
+        };
+    }
+}